@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// The app lives in the default package, which JMH does not accept for benchmarks and
+// which named packages cannot import. Benchmarks therefore reach the app's classes
+// through method handles; held in static final fields they are constants to the JIT
+// and inline like direct calls, so they add nothing measurable.
+final class AppClasses {
+
+    private AppClasses() {
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("App class " + name + " is not on the classpath", e);
+        }
+    }
+
+    static MethodHandle staticMethod(String owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            Class<?> type = type(owner);
+            return lookupIn(type).findStatic(type, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle virtualMethod(String owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            Class<?> type = type(owner);
+            return lookupIn(type).findVirtual(type, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle constructor(String owner, Class<?>... parameterTypes) {
+        try {
+            Class<?> type = type(owner);
+            return lookupIn(type).findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Package-private members such as the ForecastSeries constructor are reachable
+    // because the app and the benchmarks share the unnamed module
+    private static MethodHandles.Lookup lookupIn(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+
+    static byte[] fixture(String fileName) {
+        try (InputStream in = AppClasses.class.getResourceAsStream("/fixtures/" + fileName)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture /fixtures/" + fileName + " is not on the classpath");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
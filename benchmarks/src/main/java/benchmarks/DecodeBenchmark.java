@@ -0,0 +1,112 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Gson tree parsing (how the app originally read responses) against WeatherDecoder's
+// single-pass streaming decode, on the recorded /weather and /forecast fixtures. Both
+// sides produce the same result objects.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+
+    private static final MethodHandle DECODE_CURRENT = AppClasses.staticMethod("WeatherDecoder", "decodeCurrent",
+            AppClasses.type("CurrentConditions"), byte[].class);
+    private static final MethodHandle DECODE_FORECAST = AppClasses.staticMethod("WeatherDecoder", "decodeForecast",
+            AppClasses.type("ForecastSeries"), byte[].class);
+    private static final MethodHandle NEW_CURRENT = AppClasses.constructor("CurrentConditions", long.class,
+            String.class, double.class, int.class, double.class, int.class, String.class, long.class, long.class,
+            int.class);
+    private static final MethodHandle NEW_FORECAST = AppClasses.constructor("ForecastSeries", long[].class,
+            float[].class, byte[].class, float[].class, short[].class, String[].class, int.class, long.class,
+            long.class);
+
+    private byte[] weather;
+    private byte[] forecast;
+
+    @Setup
+    public void load() {
+        weather = AppClasses.fixture("weather.json");
+        forecast = AppClasses.fixture("forecast.json");
+    }
+
+    @Benchmark
+    public Object currentGsonTree() throws Throwable {
+        JsonObject root = parse(weather);
+        return readCurrent(root);
+    }
+
+    @Benchmark
+    public Object currentStreaming() throws Throwable {
+        return DECODE_CURRENT.invoke(weather);
+    }
+
+    @Benchmark
+    public Object forecastGsonTree() throws Throwable {
+        JsonObject root = parse(forecast);
+        JsonArray list = root.getAsJsonArray("list");
+        int size = list.size();
+        long[] times = new long[size];
+        float[] temperatures = new float[size];
+        byte[] humidities = new byte[size];
+        float[] windSpeeds = new float[size];
+        short[] conditionIds = new short[size];
+        String[] descriptions = new String[size];
+        for (int i = 0; i < size; i++) {
+            JsonObject step = list.get(i).getAsJsonObject();
+            JsonObject main = step.getAsJsonObject("main");
+            JsonObject condition = step.getAsJsonArray("weather").get(0).getAsJsonObject();
+            times[i] = step.get("dt").getAsLong();
+            temperatures[i] = main.get("temp").getAsFloat();
+            humidities[i] = (byte) main.get("humidity").getAsInt();
+            windSpeeds[i] = step.getAsJsonObject("wind").get("speed").getAsFloat();
+            conditionIds[i] = condition.get("id").getAsShort();
+            descriptions[i] = condition.get("description").getAsString();
+        }
+        JsonObject city = root.getAsJsonObject("city");
+        return NEW_FORECAST.invoke(times, temperatures, humidities, windSpeeds, conditionIds, descriptions,
+                city.get("timezone").getAsInt(), city.get("sunrise").getAsLong(), city.get("sunset").getAsLong());
+    }
+
+    @Benchmark
+    public Object forecastStreaming() throws Throwable {
+        return DECODE_FORECAST.invoke(forecast);
+    }
+
+    private static JsonObject parse(byte[] json) {
+        return JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+    }
+
+    private static Object readCurrent(JsonObject root) throws Throwable {
+        JsonObject main = root.getAsJsonObject("main");
+        JsonElement wind = root.getAsJsonObject("wind").get("speed");
+        JsonObject condition = root.getAsJsonArray("weather").get(0).getAsJsonObject();
+        JsonObject sys = root.getAsJsonObject("sys");
+        return NEW_CURRENT.invoke(root.get("id").getAsLong(), root.get("name").getAsString(),
+                main.get("temp").getAsDouble(), main.get("humidity").getAsInt(), wind.getAsDouble(),
+                condition.get("id").getAsInt(), condition.get("description").getAsString(),
+                sys.get("sunrise").getAsLong(), sys.get("sunset").getAsLong(), root.get("timezone").getAsInt());
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Temperature formatting as the labels and history cells do it. formatTemperature is
+// String.format("%.2f%s"); historyCell is a HistoryEntry's memoized text, which is what
+// a recycled cell pays on re-render; concat is a plain rounding baseline for scale.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    private static final Class<?> DISPLAY_UNIT = AppClasses.type("DisplayUnit");
+    private static final MethodHandle FORMAT_TEMPERATURE = AppClasses.virtualMethod("DisplayUnit",
+            "formatTemperature", String.class, double.class);
+    private static final MethodHandle CONVERT_TEMPERATURE = AppClasses.virtualMethod("DisplayUnit",
+            "convertTemperature", double.class, double.class);
+    private static final MethodHandle TEMPERATURE_SYMBOL = AppClasses.virtualMethod("DisplayUnit",
+            "getTemperatureSymbol", String.class);
+    private static final MethodHandle NEW_HISTORY_ENTRY = AppClasses.constructor(
+            "WeatherInformationApp$HistoryEntry", String.class, double.class, String.class);
+    private static final MethodHandle TEMPERATURE_TEXT = AppClasses.virtualMethod(
+            "WeatherInformationApp$HistoryEntry", "getTemperatureText", String.class, DISPLAY_UNIT);
+
+    @Param({"CELSIUS", "FAHRENHEIT"})
+    private String unitName;
+
+    private Object unit;
+    private double temperature;
+    private Object entry;
+
+    @Setup
+    public void setUp() throws Throwable {
+        unit = DISPLAY_UNIT.getField(unitName).get(null);
+        temperature = 14.62;
+        entry = NEW_HISTORY_ENTRY.invoke("[2024-10-18 15:00:00] London", temperature, "cloud.png");
+    }
+
+    @Benchmark
+    public String formatTemperature() throws Throwable {
+        return (String) FORMAT_TEMPERATURE.invoke(unit, temperature);
+    }
+
+    @Benchmark
+    public String historyCell() throws Throwable {
+        return (String) TEMPERATURE_TEXT.invoke(entry, unit);
+    }
+
+    @Benchmark
+    public String concat() throws Throwable {
+        long hundredths = Math.round((double) CONVERT_TEMPERATURE.invoke(unit, temperature) * 100);
+        long fraction = Math.abs(hundredths % 100);
+        return hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction + (String) TEMPERATURE_SYMBOL.invoke(unit);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Adding a search to a full history: a new HistoryEntry (timestamped label included) goes
+// in and the oldest one is evicted, with a listener attached as the ListView would have.
+// ringBuffer is HistoryBuffer; observableArrayList is the plain list shifted on every add.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryChurnBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final MethodHandle NEW_HISTORY_BUFFER = AppClasses.constructor("HistoryBuffer", int.class);
+    private static final MethodHandle NEW_HISTORY_ENTRY = AppClasses.constructor(
+            "WeatherInformationApp$HistoryEntry", String.class, double.class, String.class);
+
+    @Param({"100", "5000"})
+    private int capacity;
+
+    private ObservableList<Object> ringBuffer;
+    private ObservableList<Object> observableArrayList;
+    private int changes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void fill() throws Throwable {
+        ringBuffer = (ObservableList<Object>) NEW_HISTORY_BUFFER.invoke(capacity);
+        observableArrayList = FXCollections.observableArrayList();
+        for (int i = 0; i < capacity; i++) {
+            ringBuffer.add(newEntry());
+            observableArrayList.add(newEntry());
+        }
+        ringBuffer.addListener((ListChangeListener.Change<?> change) -> changes++);
+        observableArrayList.addListener((ListChangeListener.Change<?> change) -> changes++);
+    }
+
+    @Benchmark
+    public int ringBuffer() throws Throwable {
+        ringBuffer.add(newEntry());
+        return ringBuffer.size();
+    }
+
+    @Benchmark
+    public int observableArrayList() throws Throwable {
+        observableArrayList.remove(0);
+        observableArrayList.add(newEntry());
+        return observableArrayList.size();
+    }
+
+    private static Object newEntry() throws Throwable {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP);
+        return NEW_HISTORY_ENTRY.invoke("[" + timestamp + "] London", 14.62, "cloud.png");
+    }
+}
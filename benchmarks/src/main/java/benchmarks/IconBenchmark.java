@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Icon selection for a spread of real OpenWeather conditions. conditionTable is
+// ConditionClassifier's lookup by condition code, day/night included; descriptionScan
+// is the earlier classifier, kept here as the baseline, which lowercased the
+// description and ran a chain of contains checks. Reported per condition.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IconBenchmark {
+
+    private static final MethodHandle ICON = AppClasses.staticMethod("ConditionClassifier", "icon", String.class,
+            int.class, boolean.class);
+
+    private static final int[] CONDITION_IDS = {
+        800, 801, 802, 803, 804, 500, 501, 502, 201, 600, 701, 741, 771, 781,
+    };
+    private static final String[] DESCRIPTIONS = {
+        "clear sky", "few clouds", "scattered clouds", "broken clouds", "overcast clouds",
+        "light rain", "moderate rain", "heavy intensity rain", "thunderstorm with light rain",
+        "light snow", "mist", "fog", "squalls", "tornado",
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void conditionTable(Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < CONDITION_IDS.length; i++) {
+            blackhole.consume((String) ICON.invokeExact(CONDITION_IDS[i], (i & 1) == 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void descriptionScan(Blackhole blackhole) {
+        for (String description : DESCRIPTIONS) {
+            blackhole.consume(iconForDescription(description));
+        }
+    }
+
+    private static String iconForDescription(String weatherDescription) {
+        weatherDescription = weatherDescription.toLowerCase();
+        if (weatherDescription.contains("clear") && !weatherDescription.contains("night")) {
+            return "sun.png";
+        } else if (weatherDescription.contains("clear") && weatherDescription.contains("night")) {
+            return "night_clear.png";
+        } else if (weatherDescription.contains("cloud") && weatherDescription.contains("few")) {
+            return "partly_cloudy.png";
+        } else if (weatherDescription.contains("cloud")) {
+            return "cloud.png";
+        } else if (weatherDescription.contains("overcast")) {
+            return "overcast.png";
+        } else if (weatherDescription.contains("rain") && weatherDescription.contains("heavy")) {
+            return "heavy_rain.png";
+        } else if (weatherDescription.contains("rain")) {
+            return "rain.png";
+        } else if (weatherDescription.contains("thunderstorm")) {
+            return "thunderstorm.png";
+        } else if (weatherDescription.contains("snow")) {
+            return "snow.png";
+        } else if (weatherDescription.contains("fog") || weatherDescription.contains("mist")) {
+            return "fog.png";
+        } else if (weatherDescription.contains("wind")) {
+            return "wind.png";
+        }
+        return "default.png";
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Fetches current conditions for many locations with at most maxConcurrent requests in
+// flight. Numeric entries are treated as OpenWeather city IDs and batched through the
+// /group endpoint; names are fetched one by one. Upstream calls still pass through the
+// client's shared rate limiter.
+public class BatchFetcher {
+
+    private static final ExecutorService BATCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Receives each location's outcome as soon as it arrives, on a background thread
+    public interface Listener {
+        void onResult(int index, CurrentConditions conditions);
+
+        void onError(int index, String message);
+    }
+
+    private final int maxConcurrent;
+
+    public BatchFetcher(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Starts fetching every location and returns a future that completes once all
+     * of them have been reported to the listener. Cancelling the future stops any
+     * request that has not been sent yet.
+     */
+    public CompletableFuture<Void> fetchAll(List<String> locations, Listener listener) {
+        CompletableFuture<Void> batch = new CompletableFuture<>();
+        Semaphore permits = new Semaphore(maxConcurrent);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        Map<Long, List<Integer>> idIndices = new LinkedHashMap<>();
+
+        for (int i = 0; i < locations.size(); i++) {
+            int index = i;
+            String location = locations.get(i).trim();
+            if (WeatherAPIClient.isCityId(location)) {
+                idIndices.computeIfAbsent(Long.parseLong(location), id -> new ArrayList<>()).add(index);
+            } else {
+                tasks.add(submit(batch, permits, () -> {
+                    try {
+                        // Shares the request with the main view if it is looking up the same city
+                        listener.onResult(index, WeatherAPIClient.getCurrentConditionsAsync(location).join());
+                    } catch (CompletionException e) {
+                        listener.onError(index, WeatherApiException.messageOf(e));
+                    }
+                }));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(idIndices.keySet());
+        for (int from = 0; from < ids.size(); from += WeatherAPIClient.MAX_GROUP_SIZE) {
+            List<Long> group = ids.subList(from, Math.min(ids.size(), from + WeatherAPIClient.MAX_GROUP_SIZE));
+            tasks.add(submit(batch, permits, () -> fetchGroup(group, idIndices, listener)));
+        }
+
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new))
+                .whenComplete((ignored, ex) -> batch.complete(null));
+        return batch;
+    }
+
+    private static void fetchGroup(List<Long> group, Map<Long, List<Integer>> idIndices, Listener listener) {
+        List<Long> missing = new ArrayList<>(group);
+        try {
+            for (CurrentConditions conditions : WeatherAPIClient.getCurrentConditionsForIds(group)) {
+                missing.remove(conditions.cityId());
+                for (int index : idIndices.getOrDefault(conditions.cityId(), List.of())) {
+                    listener.onResult(index, conditions);
+                }
+            }
+            for (long id : missing) {
+                for (int index : idIndices.get(id)) {
+                    listener.onError(index, "Error: Location not found");
+                }
+            }
+        } catch (WeatherApiException e) {
+            for (long id : group) {
+                for (int index : idIndices.get(id)) {
+                    listener.onError(index, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submit(CompletableFuture<Void> batch, Semaphore permits, Runnable request) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                if (!batch.isDone()) { // Skip requests of a cancelled batch
+                    request.run();
+                }
+            } finally {
+                permits.release();
+            }
+        }, BATCH_EXECUTOR);
+    }
+}
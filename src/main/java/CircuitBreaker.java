@@ -0,0 +1,113 @@
+import java.util.function.Consumer;
+
+// Stops calling an upstream that keeps failing. After failureThreshold failures in a
+// row the breaker opens and calls fail fast without touching the network; once the
+// open period is over a single trial call is let through (half-open). If it succeeds
+// the breaker closes, if not it opens again for twice as long, up to maxOpenMillis.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maxOpenMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long currentOpenMillis;
+    private long openUntil;
+    private long trialStartedAt; // When the half-open trial went out; 0 if none is in flight
+    private volatile Consumer<State> listener = state -> { };
+
+    public CircuitBreaker(int failureThreshold, long openMillis, long maxOpenMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.maxOpenMillis = maxOpenMillis;
+        this.currentOpenMillis = openMillis;
+    }
+
+    // Called with the new state on every transition, on the thread that caused it
+    public void setListener(Consumer<State> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns whether a call may go out now. Every permitted call must be followed by
+     * {@link #onSuccess} or {@link #onFailure}; a half-open trial that never reports
+     * back (e.g. it was cancelled) is replaced by a new one after the open period.
+     */
+    public boolean tryAcquire() {
+        State changed = null;
+        boolean allowed;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (state == State.OPEN && now >= openUntil) {
+                state = changed = State.HALF_OPEN;
+                trialStartedAt = 0;
+            }
+            if (state == State.HALF_OPEN && (trialStartedAt == 0 || now - trialStartedAt >= currentOpenMillis)) {
+                trialStartedAt = now;
+                allowed = true;
+            } else {
+                allowed = state == State.CLOSED;
+            }
+        }
+        notifyListener(changed);
+        return allowed;
+    }
+
+    public void onSuccess() {
+        State changed = null;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            currentOpenMillis = openMillis;
+            if (state != State.CLOSED) {
+                state = changed = State.CLOSED;
+            }
+        }
+        notifyListener(changed);
+    }
+
+    public void onFailure() {
+        State changed = null;
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN) {
+                currentOpenMillis = Math.min(maxOpenMillis, currentOpenMillis * 2);
+                changed = open();
+            } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+                changed = open();
+            }
+        }
+        notifyListener(changed);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Back to closed with a clean record, e.g. after switching to another upstream
+    public void reset() {
+        State changed = null;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            currentOpenMillis = openMillis;
+            if (state != State.CLOSED) {
+                state = changed = State.CLOSED;
+            }
+        }
+        notifyListener(changed);
+    }
+
+    private State open() {
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + currentOpenMillis;
+        return state;
+    }
+
+    private void notifyListener(State changed) {
+        if (changed != null) {
+            listener.accept(changed);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+// Offline prefix index over the bundled city list. Names are normalized (accents
+// stripped, lower-cased) and kept in one sorted array, so a lookup is a binary
+// search plus a short scan, with no network involved.
+public final class CityIndex {
+
+    private static final String RESOURCE = "/cities.tsv";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static volatile CompletableFuture<CityIndex> shared;
+
+    // Parallel arrays sorted by key
+    private final String[] keys;
+    private final String[] labels;
+    private final long[] ids;
+
+    // A suggestion: the label is what the user sees, the ID what gets sent upstream
+    public record City(long id, String label) {
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private CityIndex(String[] keys, String[] labels, long[] ids) {
+        this.keys = keys;
+        this.labels = labels;
+        this.ids = ids;
+    }
+
+    // Loads the index on first use, off the calling thread, and shares it afterwards
+    public static CompletableFuture<CityIndex> shared() {
+        CompletableFuture<CityIndex> index = shared;
+        if (index == null) {
+            synchronized (CityIndex.class) {
+                index = shared;
+                if (index == null) {
+                    index = CompletableFuture.supplyAsync(CityIndex::load);
+                    shared = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Returns up to limit cities whose normalized name starts with the normalized prefix
+    public List<City> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<City> matches = new ArrayList<>(Math.min(limit, 16));
+        if (key.isEmpty()) {
+            return matches;
+        }
+        for (int i = lowerBound(key); i < keys.length && matches.size() < limit && keys[i].startsWith(key); i++) {
+            matches.add(new City(ids[i], labels[i]));
+        }
+        return matches;
+    }
+
+    // Index of the first key not smaller than the given one; duplicates make Arrays.binarySearch unsuitable
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // "  São   PAULO" -> "sao paulo"
+    static String normalize(String text) {
+        StringBuilder collapsed = new StringBuilder(text.length());
+        boolean ascii = true;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = collapsed.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                collapsed.append(' ');
+                pendingSpace = false;
+            }
+            collapsed.append(c);
+            ascii &= c < 0x80;
+        }
+        String result = collapsed.toString();
+        if (!ascii) {
+            result = COMBINING_MARKS.matcher(Normalizer.normalize(result, Normalizer.Form.NFD)).replaceAll("");
+        }
+        return result.toLowerCase(Locale.ROOT);
+    }
+
+    private static CityIndex load() {
+        try (InputStream in = CityIndex.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                System.out.println("Error: City list not found at " + RESOURCE);
+                return read(new BufferedReader(Reader.nullReader()));
+            }
+            return read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.out.println("Error reading city list: " + e.getMessage());
+            return read(new BufferedReader(Reader.nullReader()));
+        }
+    }
+
+    private record Row(String key, String label, long id) { }
+
+    // Builds the index from "id<TAB>name<TAB>country" lines. A damaged line is logged and skipped,
+    // and a read error keeps the cities read so far, so one bad entry never costs the whole list.
+    static CityIndex read(BufferedReader reader) {
+        List<Row> rows = new ArrayList<>();
+        try {
+            String line;
+            for (int number = 1; (line = reader.readLine()) != null; number++) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                try {
+                    if (fields.length < 3) {
+                        throw new IllegalArgumentException("expected id, name and country");
+                    }
+                    rows.add(new Row(normalize(fields[1]), fields[1] + ", " + fields[2], Long.parseLong(fields[0])));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error: Skipping city list line " + number + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading city list: " + e.getMessage());
+        }
+
+        rows.sort(Comparator.comparing(Row::key).thenComparing(Row::label));
+        String[] keys = new String[rows.size()];
+        String[] labels = new String[rows.size()];
+        long[] ids = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            keys[i] = rows.get(i).key();
+            labels[i] = rows.get(i).label();
+            ids[i] = rows.get(i).id();
+        }
+        return new CityIndex(keys, labels, ids);
+    }
+}
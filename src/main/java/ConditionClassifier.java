@@ -0,0 +1,112 @@
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Maps OpenWeather condition codes (weather[0].id, 200-899) to the bundled icons and
+// picks day or night from the location's sunrise and sunset. The tables are filled
+// once, so classifying a forecast step or a history entry is two array reads instead
+// of scanning the description text, which also never said whether it was night.
+// See https://openweathermap.org/weather-conditions for the codes.
+public final class ConditionClassifier {
+
+    public static final String FALLBACK_ICON = "cloud.png"; // Missing or unknown codes
+
+    private static final long DAY_SECONDS = 86_400;
+    private static final int MAX_CODE = 900;
+    private static final String[] DAY_ICONS = new String[MAX_CODE];
+    private static final String[] NIGHT_ICONS = new String[MAX_CODE];
+
+    static {
+        fill(200, 299, "thunderstorm.png");
+        fill(300, 399, "rain.png"); // Drizzle
+        fill(500, 599, "rain.png");
+        fill(502, 504, "heavy_rain.png"); // Heavy, very heavy and extreme rain
+        fill(522, 531, "heavy_rain.png"); // Heavy and ragged shower rain
+        fill(511, 511, "snow.png"); // Freezing rain
+        fill(600, 699, "snow.png");
+        fill(700, 769, "fog.png"); // Mist, smoke, haze, dust, fog, sand and ash
+        fill(770, 799, "wind.png"); // Squalls and tornado
+        fill(800, 800, "sun.png");
+        fill(801, 801, "partly_cloudy.png");
+        fill(802, 803, "cloud.png");
+        fill(804, 804, "overcast.png");
+        // Only clear and cloudy skies have night variants
+        NIGHT_ICONS[800] = "Night_clear.png";
+        NIGHT_ICONS[801] = "night_cloudy.png";
+        NIGHT_ICONS[802] = "night_cloudy.png";
+        NIGHT_ICONS[803] = "night_cloudy.png";
+    }
+
+    private ConditionClassifier() {
+    }
+
+    private static void fill(int from, int to, String icon) {
+        for (int code = from; code <= to; code++) {
+            DAY_ICONS[code] = icon;
+            NIGHT_ICONS[code] = icon;
+        }
+    }
+
+    // Icon file name under /images/ for a condition code
+    public static String icon(int conditionId, boolean daytime) {
+        if (conditionId < 0 || conditionId >= MAX_CODE) {
+            return FALLBACK_ICON;
+        }
+        String icon = daytime ? DAY_ICONS[conditionId] : NIGHT_ICONS[conditionId];
+        return icon != null ? icon : FALLBACK_ICON;
+    }
+
+    // Every icon file the tables can return, e.g. for decoding them ahead of time
+    public static Set<String> iconNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (int code = 0; code < MAX_CODE; code++) {
+            if (DAY_ICONS[code] != null) {
+                names.add(DAY_ICONS[code]);
+                names.add(NIGHT_ICONS[code]);
+            }
+        }
+        names.add(FALLBACK_ICON);
+        return names;
+    }
+
+    /**
+     * Whether {@code epochSecond} falls between sunrise and sunset at the location.
+     * {@code sunrise} and {@code sunset} are the UTC epoch seconds the API reports for
+     * one day; other days are assumed to have the same times, which is off by only a
+     * few minutes across a 5-day forecast. Without them (0), 06:00-18:00 local time
+     * counts as day.
+     */
+    public static boolean isDaytime(long epochSecond, long sunrise, long sunset, int timezoneOffsetSeconds) {
+        if (sunrise == 0 || sunset == 0) {
+            long secondOfDay = Math.floorMod(epochSecond + timezoneOffsetSeconds, DAY_SECONDS);
+            return secondOfDay >= 6 * 3600 && secondOfDay < 18 * 3600;
+        }
+        return secondsSinceSunrise(epochSecond, sunrise) < sunset - sunrise;
+    }
+
+    // Background for the time of day at the location: morning for two hours after
+    // sunrise, evening from an hour before sunset until two hours after, night until
+    // the next sunrise
+    public static String background(long epochSecond, long sunrise, long sunset, int timezoneOffsetSeconds) {
+        long sinceSunrise;
+        long daylight;
+        if (sunrise == 0 || sunset == 0) {
+            sinceSunrise = Math.floorMod(epochSecond + timezoneOffsetSeconds - 6 * 3600, DAY_SECONDS);
+            daylight = 12 * 3600;
+        } else {
+            sinceSunrise = secondsSinceSunrise(epochSecond, sunrise);
+            daylight = sunset - sunrise;
+        }
+        if (sinceSunrise < 2 * 3600 && sinceSunrise < daylight) {
+            return "morning.jpg";
+        } else if (sinceSunrise < daylight - 3600) {
+            return "day.jpg";
+        } else if (sinceSunrise < daylight + 2 * 3600) {
+            return "evening.jpg";
+        }
+        return "night.jpg";
+    }
+
+    private static long secondsSinceSunrise(long epochSecond, long sunrise) {
+        return Math.floorMod(epochSecond - sunrise, DAY_SECONDS);
+    }
+}
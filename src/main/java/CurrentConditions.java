@@ -0,0 +1,22 @@
+import java.time.Instant;
+
+// Current weather for one location, decoded from a /weather response.
+// Temperature is in °C and wind speed in m/s; see DisplayUnit for conversion.
+// conditionId is OpenWeather's condition code; sunrise and sunset are UTC epoch
+// seconds (0 if absent) and timezoneOffsetSeconds is the location's offset from UTC.
+public record CurrentConditions(long cityId, String name, double temperature, int humidity, double windSpeed,
+        int conditionId, String description, long sunrise, long sunset, int timezoneOffsetSeconds) {
+
+    public boolean isDaytime(Instant time) {
+        return ConditionClassifier.isDaytime(time.getEpochSecond(), sunrise, sunset, timezoneOffsetSeconds);
+    }
+
+    // Icon for the conditions as they look at the location at the given time
+    public String icon(Instant time) {
+        return ConditionClassifier.icon(conditionId, isDaytime(time));
+    }
+
+    public String background(Instant time) {
+        return ConditionClassifier.background(time.getEpochSecond(), sunrise, sunset, timezoneOffsetSeconds);
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+// Separate window that fetches many cities at once and fills a table row by row
+public class DashboardWindow {
+
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int MAX_CONCURRENCY = 16;
+
+    private final Stage stage = new Stage();
+    private final ObservableList<Row> rows = FXCollections.observableArrayList();
+    private final Supplier<DisplayUnit> unitSupplier; // Unit of the main window at fetch time
+    private final TextArea cityInput = new TextArea();
+    private final Spinner<Integer> concurrencySpinner = new Spinner<>(1, MAX_CONCURRENCY, DEFAULT_CONCURRENCY);
+    private final Label statusLabel = new Label();
+    private CompletableFuture<Void> pendingBatch;
+
+    public DashboardWindow(Supplier<DisplayUnit> unitSupplier) {
+        this.unitSupplier = unitSupplier;
+
+        cityInput.setPromptText("One city name or OpenWeather city ID per line");
+        cityInput.setPrefRowCount(6);
+
+        Button fetchButton = new Button("Fetch All");
+        fetchButton.setOnAction(e -> fetchAll());
+
+        HBox controls = new HBox(10, new Label("Parallel requests:"), concurrencySpinner, fetchButton, statusLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        // TableView only creates cells for visible rows, so long city lists stay cheap
+        TableView<Row> table = new TableView<>(rows);
+        table.getColumns().add(column("Location", 160, row -> row.location));
+        table.getColumns().add(column("Temperature", 100, row -> row.temperature));
+        table.getColumns().add(column("Humidity", 80, row -> row.humidity));
+        table.getColumns().add(column("Wind Speed", 100, row -> row.windSpeed));
+        table.getColumns().add(column("Condition", 200, row -> row.condition));
+
+        VBox top = new VBox(10, cityInput, controls);
+        BorderPane layout = new BorderPane(table);
+        layout.setTop(top);
+        layout.setPadding(new Insets(10));
+        BorderPane.setMargin(top, new Insets(0, 0, 10, 0));
+
+        stage.setScene(new Scene(layout, 700, 500));
+        stage.setTitle("Weather Dashboard");
+        stage.setOnHidden(e -> cancelPending());
+    }
+
+    public void show() {
+        stage.show();
+        stage.toFront();
+    }
+
+    private void fetchAll() {
+        cancelPending();
+
+        List<String> locations = new ArrayList<>();
+        List<Row> batchRows = new ArrayList<>(); // Late results of a cancelled batch only touch these
+        for (String line : cityInput.getText().split("\\R")) {
+            if (!line.isBlank()) {
+                locations.add(line.trim());
+                batchRows.add(new Row(line.trim()));
+            }
+        }
+        rows.setAll(batchRows);
+        if (locations.isEmpty()) {
+            return;
+        }
+
+        DisplayUnit unit = unitSupplier.get();
+        statusLabel.setText("Fetching " + locations.size() + " locations...");
+        CompletableFuture<Void> batch = new BatchFetcher(concurrencySpinner.getValue()).fetchAll(locations,
+                new BatchFetcher.Listener() {
+                    @Override
+                    public void onResult(int index, CurrentConditions conditions) {
+                        Platform.runLater(() -> batchRows.get(index).show(conditions, unit));
+                    }
+
+                    @Override
+                    public void onError(int index, String message) {
+                        Platform.runLater(() -> batchRows.get(index).condition.set(message));
+                    }
+                });
+        batch.thenRun(() -> Platform.runLater(() -> {
+            if (pendingBatch == batch) {
+                statusLabel.setText("Done");
+            }
+        }));
+        pendingBatch = batch;
+    }
+
+    private void cancelPending() {
+        if (pendingBatch != null) {
+            pendingBatch.cancel(true);
+            pendingBatch = null;
+            statusLabel.setText("");
+        }
+    }
+
+    private static TableColumn<Row, String> column(String title, double width,
+            Function<Row, StringProperty> property) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> property.apply(cell.getValue()));
+        return column;
+    }
+
+    // One table row; its properties are filled in on the FX thread as the result arrives
+    private static class Row {
+        private final StringProperty location = new SimpleStringProperty();
+        private final StringProperty temperature = new SimpleStringProperty("");
+        private final StringProperty humidity = new SimpleStringProperty("");
+        private final StringProperty windSpeed = new SimpleStringProperty("");
+        private final StringProperty condition = new SimpleStringProperty("Pending...");
+
+        private Row(String location) {
+            this.location.set(location);
+        }
+
+        private void show(CurrentConditions conditions, DisplayUnit unit) {
+            if (!conditions.name().isEmpty()) {
+                location.set(conditions.name());
+            }
+            temperature.set(unit.formatTemperature(conditions.temperature()));
+            humidity.set(conditions.humidity() + " %");
+            windSpeed.set(unit.formatWindSpeed(conditions.windSpeed()));
+            condition.set(conditions.description());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// Unit system the user sees. All data is fetched and stored in metric (°C, m/s)
+// and only converted here, at render time, so switching units never refetches.
+public enum DisplayUnit {
+    CELSIUS("Celsius", "°C", "km/h"),
+    FAHRENHEIT("Fahrenheit", "°F", "mph");
+
+    private final String label;
+    private final String temperatureSymbol;
+    private final String windSpeedSymbol;
+
+    DisplayUnit(String label, String temperatureSymbol, String windSpeedSymbol) {
+        this.label = label;
+        this.temperatureSymbol = temperatureSymbol;
+        this.windSpeedSymbol = windSpeedSymbol;
+    }
+
+    public double convertTemperature(double celsius) {
+        return this == CELSIUS ? celsius : celsius * 9 / 5 + 32;
+    }
+
+    public double convertWindSpeed(double metersPerSecond) {
+        return this == CELSIUS ? metersPerSecond * 3.6 : metersPerSecond * 2.237;
+    }
+
+    public String getTemperatureSymbol() {
+        return temperatureSymbol;
+    }
+
+    public String getWindSpeedSymbol() {
+        return windSpeedSymbol;
+    }
+
+    // e.g. "14.62°C"
+    public String formatTemperature(double celsius) {
+        return String.format("%.2f%s", convertTemperature(celsius), temperatureSymbol);
+    }
+
+    // e.g. "14.83 km/h"
+    public String formatWindSpeed(double metersPerSecond) {
+        return String.format("%.2f %s", convertWindSpeed(metersPerSecond), windSpeedSymbol);
+    }
+
+    @Override
+    public String toString() {
+        return label; // Shown in the unit selector
+    }
+}
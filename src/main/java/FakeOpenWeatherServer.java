@@ -0,0 +1,232 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Offline stand-in for the OpenWeather API. Serves the recorded fixtures in
+// resources/fixtures for /weather, /forecast and /group, with configurable latency and
+// injected 404, 429 and 500 responses and a slow tail. Bodies carry an ETag (unless --no-etag) and are
+// gzipped when asked, like the real API. Run it on its own and point the app at it with
+// -Dweather.api.baseUrl=http://127.0.0.1:<port>, or embed it as LoadGenerator does.
+//
+//   java FakeOpenWeatherServer --port=9090 --latency=80 --jitter=40 --error-rate=0.01 --rate-limit-rate=0.01
+//       --slow-rate=0.02 --slow-latency=3000
+public class FakeOpenWeatherServer {
+
+    private static final String ETAG = "\"fixture-1\"";
+
+    /**
+     * How the server misbehaves. Latency is {@code latencyMillis} plus a uniform
+     * random extra of up to {@code jitterMillis}, and a further {@code slowMillis} for
+     * the share {@code slowRate} of requests; the rates are per-request probabilities
+     * between 0 and 1. Without ETags every request gets a full body.
+     */
+    public record Settings(long latencyMillis, long jitterMillis, double slowRate, long slowMillis,
+            double notFoundRate, double rateLimitRate, double errorRate, boolean etags) {
+
+        public static final Settings NONE = new Settings(0, 0, 0, 0, 0, 0, 0, true);
+
+        // Reads --latency, --jitter, --slow-rate, --slow-latency, --not-found-rate, --rate-limit-rate,
+        // --error-rate and --no-etag
+        public static Settings fromArgs(String[] args) {
+            return new Settings(
+                    (long) option(args, "latency", 0), (long) option(args, "jitter", 0),
+                    option(args, "slow-rate", 0), (long) option(args, "slow-latency", 0),
+                    option(args, "not-found-rate", 0), option(args, "rate-limit-rate", 0),
+                    option(args, "error-rate", 0), !List.of(args).contains("--no-etag"));
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Settings settings;
+    private final byte[] weather = fixture("weather.json");
+    private final byte[] forecast = fixture("forecast.json");
+    private final byte[] weatherGzipped = gzip(weather);
+    private final byte[] forecastGzipped = gzip(forecast);
+    private final LongAdder requests = new LongAdder();
+
+    public FakeOpenWeatherServer(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        // Without this the JDK server adds ~40 ms to responses at random (Nagle against delayed ACKs),
+        // which would be measured as client latency
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/weather", exchange -> serve(exchange, weather, weatherGzipped));
+        server.createContext("/forecast", exchange -> serve(exchange, forecast, forecastGzipped));
+        server.createContext("/group", this::serveGroup);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Every request received, including the ones answered with an injected failure
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    private void serve(HttpExchange exchange, byte[] body, byte[] gzipped) throws IOException {
+        try (exchange) {
+            if (misbehave(exchange)) {
+                return;
+            }
+            if (settings.etags()) {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                send(exchange, 200, gzipped);
+            } else {
+                send(exchange, 200, body);
+            }
+        }
+    }
+
+    // One copy of the weather fixture per requested ID, with the ID swapped in
+    private void serveGroup(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (misbehave(exchange)) {
+                return;
+            }
+            String ids = parameter(exchange.getRequestURI().getRawQuery(), "id");
+            String template = new String(weather, StandardCharsets.UTF_8);
+            StringBuilder json = new StringBuilder("{\"list\":[");
+            int count = 0;
+            for (String id : ids == null ? new String[0] : ids.split(",")) {
+                if (count++ > 0) {
+                    json.append(',');
+                }
+                json.append(template.replace("\"id\":2643743", "\"id\":" + id.trim()));
+            }
+            json.insert(1, "\"cnt\":" + count + ",").append("]}");
+            send(exchange, 200, json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Applies the configured latency, then possibly answers with an injected failure
+    private boolean misbehave(HttpExchange exchange) throws IOException {
+        requests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = settings.latencyMillis()
+                + (settings.jitterMillis() > 0 ? random.nextLong(settings.jitterMillis() + 1) : 0)
+                + (random.nextDouble() < settings.slowRate() ? settings.slowMillis() : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        double roll = random.nextDouble();
+        if (roll < settings.notFoundRate()) {
+            send(exchange, 404, "{\"cod\":\"404\",\"message\":\"city not found\"}".getBytes(StandardCharsets.UTF_8));
+            return true;
+        }
+        roll -= settings.notFoundRate();
+        if (roll < settings.rateLimitRate()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 429, "{\"cod\":429,\"message\":\"rate limit exceeded\"}".getBytes(StandardCharsets.UTF_8));
+            return true;
+        }
+        roll -= settings.rateLimitRate();
+        if (roll < settings.errorRate()) {
+            send(exchange, 500, "{\"cod\":500,\"message\":\"internal error\"}".getBytes(StandardCharsets.UTF_8));
+            return true;
+        }
+        return false;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String parameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] fixture(String fileName) {
+        try (InputStream in = FakeOpenWeatherServer.class.getResourceAsStream("/fixtures/" + fileName)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture /fixtures/" + fileName + " is not on the classpath");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Value of --name=value as a number, or the default if it is absent
+    static double option(String[] args, String name, double defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                try {
+                    return Double.parseDouble(arg.substring(prefix.length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Error: --" + name + " needs a number, got " + arg);
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    public static void main(String[] args) throws IOException {
+        FakeOpenWeatherServer server = new FakeOpenWeatherServer((int) option(args, "port", 9090),
+                Settings.fromArgs(args));
+        server.start();
+        System.out.println("Fake OpenWeather server on " + server.getBaseUrl() + " with " + server.settings);
+    }
+}
@@ -0,0 +1,152 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.image.Image;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+// Horizontally scrollable forecast chart drawn on a single Canvas. Only the steps
+// inside the visible window are drawn, however long the forecast is.
+public final class ForecastChart extends BorderPane {
+
+    private static final double STEP_WIDTH = 56;
+    private static final int ICON_SIZE = 30;
+    private static final double TOP_PADDING = 44; // Time labels and icons sit above the curve
+    private static final double BOTTOM_PADDING = 22; // Temperature labels sit below it
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar scrollBar = new ScrollBar();
+    private final IconSource icons;
+    private ForecastSeries series;
+    private DisplayUnit unit = DisplayUnit.CELSIUS;
+
+    // Supplies the (already decoded and cached) icon for one step of a series
+    public interface IconSource {
+        Image iconFor(ForecastSeries series, int index);
+    }
+
+    public ForecastChart(IconSource icons) {
+        this.icons = icons;
+
+        Pane canvasHolder = new Pane(canvas);
+        canvasHolder.setMinSize(0, 0);
+        canvas.widthProperty().bind(canvasHolder.widthProperty());
+        canvas.heightProperty().bind(canvasHolder.heightProperty());
+        canvas.widthProperty().addListener((obs, oldWidth, width) -> updateScrollRange());
+        canvas.heightProperty().addListener((obs, oldHeight, height) -> redraw());
+
+        scrollBar.setOrientation(Orientation.HORIZONTAL);
+        scrollBar.valueProperty().addListener((obs, oldValue, value) -> redraw());
+        canvas.setOnScroll(e -> scrollBar.setValue(clamp(scrollBar.getValue() - e.getDeltaX() - e.getDeltaY())));
+
+        setCenter(canvasHolder);
+        setBottom(scrollBar);
+    }
+
+    public void setSeries(ForecastSeries series) {
+        this.series = series;
+        scrollBar.setValue(0);
+        updateScrollRange();
+    }
+
+    // Swaps in a refreshed series for the same place without moving the view
+    public void updateSeries(ForecastSeries series) {
+        this.series = series;
+        updateScrollRange();
+    }
+
+    public void setUnit(DisplayUnit unit) {
+        this.unit = unit;
+        redraw();
+    }
+
+    private void updateScrollRange() {
+        double contentWidth = series == null ? 0 : series.size() * STEP_WIDTH;
+        double viewWidth = canvas.getWidth();
+        double maxOffset = Math.max(0, contentWidth - viewWidth);
+        scrollBar.setMax(maxOffset);
+        scrollBar.setVisibleAmount(contentWidth == 0 ? 0 : maxOffset * viewWidth / contentWidth);
+        scrollBar.setUnitIncrement(STEP_WIDTH);
+        scrollBar.setBlockIncrement(viewWidth);
+        scrollBar.setValue(clamp(scrollBar.getValue()));
+        redraw();
+    }
+
+    private double clamp(double offset) {
+        return Math.max(0, Math.min(scrollBar.getMax(), offset));
+    }
+
+    private void redraw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        g.clearRect(0, 0, width, height);
+        if (series == null || series.size() == 0) {
+            return;
+        }
+
+        // The vertical scale covers the whole series so it stays put while scrolling
+        double min = series.minTemperature();
+        double max = series.maxTemperature();
+        double range = Math.max(1, max - min);
+        double plotTop = TOP_PADDING;
+        double plotHeight = Math.max(1, height - TOP_PADDING - BOTTOM_PADDING);
+
+        double offset = scrollBar.getValue();
+        int first = Math.max(0, (int) (offset / STEP_WIDTH) - 1);
+        int last = Math.min(series.size() - 1, (int) ((offset + width) / STEP_WIDTH) + 1);
+
+        g.setFont(Font.font(12));
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.TOP);
+
+        // Temperature curve, including one step beyond each edge so lines run off-screen
+        g.setStroke(Color.ORANGE);
+        g.setLineWidth(2);
+        g.beginPath();
+        for (int i = first; i <= last; i++) {
+            double x = i * STEP_WIDTH - offset + STEP_WIDTH / 2;
+            double y = plotTop + (max - series.temperature(i)) / range * plotHeight;
+            if (i == first) {
+                g.moveTo(x, y);
+            } else {
+                g.lineTo(x, y);
+            }
+        }
+        g.stroke();
+
+        for (int i = first; i <= last; i++) {
+            double x = i * STEP_WIDTH - offset + STEP_WIDTH / 2;
+            double y = plotTop + (max - series.temperature(i)) / range * plotHeight;
+            LocalDateTime time = series.localTime(i);
+
+            // A new day is marked with its weekday instead of the time
+            g.setFill(Color.LIGHTGRAY);
+            String label = time.getHour() < 3
+                    ? time.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault())
+                    : time.format(TIME_FORMAT);
+            g.fillText(label, x, 0);
+
+            Image icon = icons.iconFor(series, i);
+            if (icon != null) {
+                g.drawImage(icon, x - ICON_SIZE / 2.0, 14, ICON_SIZE, ICON_SIZE);
+            }
+
+            g.setFill(Color.ORANGE);
+            g.fillOval(x - 3, y - 3, 6, 6);
+            g.setFill(Color.WHITE);
+            g.fillText(String.format("%.0f%s", unit.convertTemperature(series.temperature(i)),
+                    unit.getTemperatureSymbol()), x, Math.min(y + 6, height - BOTTOM_PADDING + 4));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The whole /forecast horizon (3-hour steps, ~5 days) in primitive columns, so a
+// watched city costs a few small arrays instead of an object per step. Temperatures
+// are in °C and wind speeds in m/s. Instances are immutable.
+public final class ForecastSeries {
+
+    private final long[] epochSeconds;
+    private final float[] temperatures;
+    private final byte[] humidities;
+    private final float[] windSpeeds;
+    private final short[] conditionIds;
+    private final String[] descriptions; // Shared instances; a forecast only has a handful of distinct ones
+    private final int timezoneOffsetSeconds;
+    private final long sunrise; // UTC epoch seconds from city.sunrise / city.sunset, 0 if absent
+    private final long sunset;
+
+    ForecastSeries(long[] epochSeconds, float[] temperatures, byte[] humidities, float[] windSpeeds,
+            short[] conditionIds, String[] descriptions, int timezoneOffsetSeconds, long sunrise, long sunset) {
+        this.epochSeconds = epochSeconds;
+        this.temperatures = temperatures;
+        this.humidities = humidities;
+        this.windSpeeds = windSpeeds;
+        this.conditionIds = conditionIds;
+        this.descriptions = descriptions;
+        this.timezoneOffsetSeconds = timezoneOffsetSeconds;
+        this.sunrise = sunrise;
+        this.sunset = sunset;
+    }
+
+    public int size() {
+        return epochSeconds.length;
+    }
+
+    public long epochSecond(int index) {
+        return epochSeconds[index];
+    }
+
+    public double temperature(int index) {
+        return temperatures[index];
+    }
+
+    public int humidity(int index) {
+        return humidities[index];
+    }
+
+    public double windSpeed(int index) {
+        return windSpeeds[index];
+    }
+
+    public int conditionId(int index) {
+        return conditionIds[index];
+    }
+
+    public String description(int index) {
+        return descriptions[index];
+    }
+
+    // Offset of the forecast location from UTC, from the payload's city.timezone
+    public int timezoneOffsetSeconds() {
+        return timezoneOffsetSeconds;
+    }
+
+    // Whether a step falls between sunrise and sunset at the forecast location
+    public boolean isDaytime(int index) {
+        return ConditionClassifier.isDaytime(epochSeconds[index], sunrise, sunset, timezoneOffsetSeconds);
+    }
+
+    // Icon for a step, with the night variant after sunset
+    public String icon(int index) {
+        return ConditionClassifier.icon(conditionIds[index], isDaytime(index));
+    }
+
+    // Wall-clock time of a step at the forecast location
+    public LocalDateTime localTime(int index) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[index], 0, ZoneOffset.ofTotalSeconds(timezoneOffsetSeconds));
+    }
+
+    public double minTemperature() {
+        double min = Double.POSITIVE_INFINITY;
+        for (float temperature : temperatures) {
+            min = Math.min(min, temperature);
+        }
+        return min;
+    }
+
+    public double maxTemperature() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (float temperature : temperatures) {
+            max = Math.max(max, temperature);
+        }
+        return max;
+    }
+
+    // Min/max/average temperature per local calendar day, in one pass over the columns
+    public List<DailySummary> dailySummaries() {
+        List<DailySummary> days = new ArrayList<>(6);
+        int i = 0;
+        while (i < epochSeconds.length) {
+            long day = Math.floorDiv(epochSeconds[i] + timezoneOffsetSeconds, 86_400L);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            int count = 0;
+            for (; i < epochSeconds.length && Math.floorDiv(epochSeconds[i] + timezoneOffsetSeconds, 86_400L) == day;
+                    i++) {
+                min = Math.min(min, temperatures[i]);
+                max = Math.max(max, temperatures[i]);
+                sum += temperatures[i];
+                count++;
+            }
+            days.add(new DailySummary(LocalDate.ofEpochDay(day), min, max, sum / count, count));
+        }
+        return days;
+    }
+
+    // Value equality, so a background refresh can tell whether anything on screen would change
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ForecastSeries other)) {
+            return false;
+        }
+        return timezoneOffsetSeconds == other.timezoneOffsetSeconds
+                && sunrise == other.sunrise
+                && sunset == other.sunset
+                && Arrays.equals(epochSeconds, other.epochSeconds)
+                && Arrays.equals(temperatures, other.temperatures)
+                && Arrays.equals(humidities, other.humidities)
+                && Arrays.equals(windSpeeds, other.windSpeeds)
+                && Arrays.equals(conditionIds, other.conditionIds)
+                && Arrays.equals(descriptions, other.descriptions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(epochSeconds) + Arrays.hashCode(temperatures);
+    }
+
+    // count is the number of 3-hour steps the day has in the forecast window
+    public record DailySummary(LocalDate date, double min, double max, double average, int count) {
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
+
+// Detects stalls of the JavaFX Application Thread. A daemon thread posts a tiny
+// heartbeat with Platform.runLater every period; when one has waited longer than the
+// threshold, the FX thread's stack is logged once for that stall. Every stall's
+// length is recorded in the fx.stall histogram and counted in fx.stalls.
+public class FxWatchdog {
+
+    private static final long PERIOD_MILLIS = 100;
+
+    private final long thresholdNanos;
+    private final LatencyHistogram stalls = Metrics.histogram("fx.stall");
+    private volatile long postedAt; // nanoTime the pending heartbeat was posted, 0 when none is pending
+    private volatile Thread fxThread;
+    private Thread thread;
+
+    public FxWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::watch, "fx-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void watch() {
+        boolean reported = false;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long posted = postedAt;
+                if (posted == 0) {
+                    long now = System.nanoTime();
+                    postedAt = now;
+                    Platform.runLater(() -> heartbeat(now));
+                    reported = false;
+                } else if (!reported && System.nanoTime() - posted > thresholdNanos) {
+                    reported = true;
+                    report(System.nanoTime() - posted);
+                }
+                Thread.sleep(PERIOD_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    private void heartbeat(long posted) {
+        fxThread = Thread.currentThread();
+        long waited = System.nanoTime() - posted;
+        if (waited > thresholdNanos) {
+            stalls.recordNanos(waited);
+            Metrics.counter("fx.stalls").increment();
+        }
+        postedAt = 0;
+    }
+
+    private void report(long blockedNanos) {
+        StringBuilder message = new StringBuilder("Warning: JavaFX Application Thread blocked for ")
+                .append(TimeUnit.NANOSECONDS.toMillis(blockedNanos)).append(" ms");
+        Thread blocked = fxThread;
+        if (blocked != null) {
+            for (StackTraceElement frame : blocked.getStackTrace()) {
+                message.append(System.lineSeparator()).append("    at ").append(frame);
+            }
+        }
+        System.out.println(message);
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import javafx.collections.ObservableListBase;
+
+// Fixed-capacity ring buffer exposed as an ObservableList. Appending to a full
+// buffer overwrites the oldest element in O(1) instead of shifting the list.
+public class HistoryBuffer<E> extends ObservableListBase<E> {
+
+    private final Object[] items;
+    private int head; // Index of the oldest element
+    private int size;
+
+    public HistoryBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.items = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) items[(head + index) % items.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    // Appends an element, evicting the oldest one if the buffer is full
+    @Override
+    public boolean add(E element) {
+        beginChange();
+        try {
+            if (size == items.length) {
+                E oldest = get(0);
+                items[head] = element;
+                head = (head + 1) % items.length;
+                nextRemove(0, oldest);
+                nextAdd(size - 1, size);
+            } else {
+                items[(head + size) % items.length] = element;
+                size++;
+                nextAdd(size - 1, size);
+            }
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    // Appends all elements as one change, evicting the oldest ones as needed
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+        if (elements.isEmpty()) {
+            return false;
+        }
+        beginChange();
+        try {
+            for (E element : elements) {
+                add(element);
+            }
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    /**
+     * Inserts elements that are older than everything in the buffer in front of it,
+     * as one change. {@code older} is oldest first; if it does not fit, only its
+     * newest elements go in. Returns how many were inserted.
+     */
+    public int addAllFirst(List<? extends E> older) {
+        int count = Math.min(older.size(), items.length - size);
+        if (count == 0) {
+            return 0;
+        }
+        beginChange();
+        try {
+            head = Math.floorMod(head - count, items.length);
+            List<? extends E> kept = older.subList(older.size() - count, older.size());
+            for (int i = 0; i < count; i++) {
+                items[(head + i) % items.length] = kept.get(i);
+            }
+            size += count;
+            nextAdd(0, count);
+        } finally {
+            endChange();
+        }
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        beginChange();
+        try {
+            nextRemove(0, List.copyOf(this));
+            Arrays.fill(items, null);
+            head = 0;
+            size = 0;
+        } finally {
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javafx.scene.image.Image;
+
+// Decodes each icon once at the size it is displayed and keeps backgrounds scaled to
+// the window, so renders reuse small images instead of decoding the originals again.
+public class ImageRegistry {
+
+    private static final int MAX_ICONS = 64; // 14 icons at three sizes, with room to spare
+    private static final int MAX_BACKGROUNDS = 4; // One per time of day at the current window size
+
+    private static final LatencyHistogram ICON_LOADS = Metrics.histogram("image.icon");
+    private static final LatencyHistogram BACKGROUND_LOADS = Metrics.histogram("image.background");
+
+    private final Map<String, Image> icons = lruMap(MAX_ICONS);
+    private final Map<String, Image> backgrounds = lruMap(MAX_BACKGROUNDS);
+    private double backgroundWidth;
+    private double backgroundHeight;
+
+    /**
+     * Returns the icon from {@code /images/} decoded to {@code size} x {@code size}
+     * pixels, or {@code null} if no such image is bundled.
+     */
+    public synchronized Image icon(String fileName, int size) {
+        String key = fileName + '@' + size;
+        Image image = icons.get(key);
+        if (image == null && !icons.containsKey(key)) {
+            URL url = getClass().getResource("/images/" + fileName);
+            if (url == null) {
+                System.out.println("Error: Image file not found at path /images/" + fileName);
+            } else {
+                long start = System.nanoTime();
+                image = new Image(url.toExternalForm(), size, size, true, true);
+                ICON_LOADS.recordSince(start);
+            }
+            icons.put(key, image); // Missing files are remembered too, so they are only looked up once
+        }
+        return image;
+    }
+
+    /**
+     * Decodes the background image in the background at the given window size and
+     * passes it to {@code onLoaded} on the FX thread once it is ready. Cached
+     * backgrounds are handed over immediately; a new size drops them all. Must be
+     * called on the FX thread.
+     */
+    public void background(String fileName, double width, double height, Consumer<Image> onLoaded) {
+        Image image;
+        synchronized (this) {
+            if (width != backgroundWidth || height != backgroundHeight) {
+                backgrounds.clear();
+                backgroundWidth = width;
+                backgroundHeight = height;
+            }
+            image = backgrounds.get(fileName);
+            if (image == null) {
+                URL url = getClass().getResource("/images/" + fileName);
+                if (url == null) {
+                    System.out.println("Error loading background image from path: images/" + fileName);
+                    return;
+                }
+                long start = System.nanoTime();
+                image = new Image(url.toExternalForm(), width, height, true, true, true);
+                image.progressProperty().addListener((obs, oldProgress, progress) -> {
+                    if (progress.doubleValue() >= 1.0) {
+                        BACKGROUND_LOADS.recordSince(start); // Measured from request to fully decoded
+                    }
+                });
+                backgrounds.put(fileName, image);
+            }
+        }
+
+        if (image.getProgress() >= 1.0) {
+            if (!image.isError()) {
+                onLoaded.accept(image);
+            }
+            return;
+        }
+        Image loading = image;
+        loading.progressProperty().addListener((obs, oldProgress, progress) -> {
+            if (progress.doubleValue() >= 1.0 && !loading.isError()) {
+                onLoaded.accept(loading);
+            }
+        });
+    }
+
+    private static Map<String, Image> lruMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free latency histogram in the HDR style: exact below 16 µs, then eight buckets
+// per power of two, so any recorded value is reported within 12.5% while the whole
+// range from 1 µs to hours fits in a few hundred counters. Recording is one array
+// increment, cheap enough for every request, decode and frame-sized task.
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 16; // Values below this many µs get a bucket each
+    private static final int SUB_BUCKET_BITS = 3; // 2^3 buckets per power of two above that
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 4; // log2(LINEAR_BUCKETS)
+    private static final int MAX_EXPONENT = 40; // ~12 days; longer values land in the last bucket
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - FIRST_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    // Records the time elapsed since startNanos, a System.nanoTime() reading
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    /**
+     * Returns count, mean, p50/p90/p99 and max in milliseconds. Counters are read
+     * without stopping writers, so a summary taken under load may be off by the
+     * few values recorded while it was being built.
+     */
+    public Summary summary() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+        long max = maxMicros.get();
+        return new Summary(count, totalMicros.get() / 1000.0 / Math.max(1, totalCount.get()),
+                percentile(snapshot, count, 0.50, max), percentile(snapshot, count, 0.90, max),
+                percentile(snapshot, count, 0.99, max), max / 1000.0);
+    }
+
+    // A single percentile in milliseconds, e.g. 0.95 for p95; 0 while nothing has been recorded
+    public double percentileMillis(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        return count == 0 ? 0 : percentile(snapshot, count, quantile, maxMicros.get());
+    }
+
+    private static double percentile(long[] snapshot, long count, double quantile, long maxMicros) {
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                // Middle of the bucket, never above the largest value actually seen
+                return Math.min(lowerBound(i) + (width(i) - 1) / 2.0, maxMicros) / 1000.0;
+            }
+        }
+        return maxMicros / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int subBucket = (int) Math.min(SUB_BUCKETS - 1, (micros >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS);
+        return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = FIRST_EXPONENT + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long width(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return 1;
+        }
+        int exponent = FIRST_EXPONENT + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+        return 1L << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public record Summary(long count, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+            double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                    count, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives WeatherAPIClient at a fixed request rate and reports throughput, latency
+// percentiles and allocation per request. By default it runs against an embedded
+// FakeOpenWeatherServer, so it needs no network and no API key.
+//
+// Requests are issued open-loop: each one is due at a fixed time and its latency is
+// measured from then, so a slow client shows up as latency instead of quietly lowering
+// the rate.
+//
+//   java LoadGenerator --rate=500 --duration=20 --warmup=5 --locations=50 --endpoint=mixed --mode=cached
+//       --latency=40 --jitter=20 --error-rate=0.01        (fake server settings, see FakeOpenWeatherServer)
+//       --base-url=http://host:port                        (use an already running server instead)
+//
+// --mode=cached goes through the same path as the app (cache, request coalescing,
+// decoding); --mode=upstream revalidates every request against the server and decodes
+// the answer, which measures the HTTP client and decoder on their own (add --no-etag so
+// the server sends full bodies instead of 304s).
+public class LoadGenerator {
+
+    private final String mode;
+    private final String endpoint;
+    private final int locations;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder succeeded = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private LoadGenerator(String mode, String endpoint, int locations) {
+        this.mode = mode;
+        this.endpoint = endpoint;
+        this.locations = locations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The client's rate limiter guards the real API's quota; here it would only cap the rate under test
+        if (System.getProperty("weather.api.callsPerMinute") == null) {
+            System.setProperty("weather.api.callsPerMinute", String.valueOf(Integer.MAX_VALUE / 2));
+        }
+        if (System.getProperty("weather.api.key") == null) {
+            System.setProperty("weather.api.key", "load-test");
+        }
+
+        double rate = FakeOpenWeatherServer.option(args, "rate", 200);
+        long durationSeconds = (long) FakeOpenWeatherServer.option(args, "duration", 20);
+        long warmupSeconds = (long) FakeOpenWeatherServer.option(args, "warmup", 5);
+        int locations = (int) FakeOpenWeatherServer.option(args, "locations", 50);
+        String mode = textOption(args, "mode", "cached");
+        String endpoint = textOption(args, "endpoint", "mixed");
+        if (!List.of("cached", "upstream").contains(mode) || !List.of("weather", "forecast", "mixed")
+                .contains(endpoint) || rate <= 0 || locations <= 0) {
+            System.out.println("Error: Expected --mode=cached|upstream, --endpoint=weather|forecast|mixed,"
+                    + " --rate > 0 and --locations > 0");
+            System.exit(2);
+        }
+
+        FakeOpenWeatherServer server = null;
+        String baseUrl = textOption(args, "base-url", null);
+        if (baseUrl == null) {
+            FakeOpenWeatherServer.Settings settings = FakeOpenWeatherServer.Settings.fromArgs(args);
+            server = new FakeOpenWeatherServer(0, settings);
+            server.start();
+            baseUrl = server.getBaseUrl();
+            System.out.println("Embedded fake server " + baseUrl + " " + settings);
+        }
+        WeatherAPIClient.setBaseUrl(baseUrl);
+
+        System.out.printf("Warming up for %d s at %.0f req/s...%n", warmupSeconds, rate);
+        new LoadGenerator(mode, endpoint, locations).run(rate, warmupSeconds);
+
+        long serverRequestsBefore = server == null ? 0 : server.getRequestCount();
+        LoadGenerator measured = new LoadGenerator(mode, endpoint, locations);
+        System.out.printf("Measuring for %d s at %.0f req/s (%s, %s, %d locations)...%n", durationSeconds, rate,
+                endpoint, mode, locations);
+        Result result = measured.run(rate, durationSeconds);
+        measured.report(result, server == null ? -1 : server.getRequestCount() - serverRequestsBefore);
+
+        if (server != null) {
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    private Result run(double rate, long durationSeconds) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long total = (long) (rate * durationSeconds);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String location = "City " + (i % locations);
+                boolean forecast = endpoint.equals("forecast") || (endpoint.equals("mixed") && i % 2 == 1);
+                pending.add(CompletableFuture.runAsync(() -> call(location, forecast, due), callers));
+            }
+            CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new Result(total, elapsed, allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore);
+    }
+
+    private void call(String location, boolean forecast, long dueNanos) {
+        try {
+            if (mode.equals("cached")) {
+                if (forecast) {
+                    WeatherAPIClient.getForecastAsync(location).join();
+                } else {
+                    WeatherAPIClient.getCurrentConditionsAsync(location).join();
+                }
+            } else if (forecast) {
+                WeatherDecoder.decodeForecast(WeatherAPIClient.revalidateForecastDataAsync(location).join());
+            } else {
+                WeatherDecoder.decodeCurrent(WeatherAPIClient.revalidateWeatherDataAsync(location).join());
+            }
+            succeeded.increment();
+        } catch (RuntimeException e) {
+            failures.computeIfAbsent(WeatherApiException.messageOf(e), message -> new LongAdder()).increment();
+        } finally {
+            latencies.recordSince(dueNanos);
+        }
+    }
+
+    private void report(Result result, long upstreamRequests) {
+        double seconds = result.elapsedNanos() / 1e9;
+        long failed = result.requests() - succeeded.sum();
+        System.out.printf("%nCompleted %d requests (%d failed) in %.2f s: %.1f req/s%n", result.requests(), failed,
+                seconds, result.requests() / seconds);
+        System.out.println("Latency from scheduled start: " + latencies.summary());
+        if (result.allocatedBytes() >= 0) {
+            System.out.printf("Allocated %.1f KB per request (whole JVM%s)%n",
+                    result.allocatedBytes() / 1024.0 / result.requests(),
+                    upstreamRequests >= 0 ? ", including the embedded server" : "");
+        }
+        if (upstreamRequests >= 0) {
+            System.out.printf("Server saw %d requests (%.1f%% of client requests)%n", upstreamRequests,
+                    100.0 * upstreamRequests / result.requests());
+        }
+        System.out.println("Cache (including warm-up): " + WeatherAPIClient.getCacheStats());
+        System.out.println("Coalescing (including warm-up): " + WeatherAPIClient.getInFlightStats());
+        Map<String, Long> resilience = new TreeMap<>(Metrics.counters());
+        resilience.keySet().removeIf(name -> !name.matches("(hedges|hedgeWins|retries|rejected|lastKnown)\\..*"));
+        System.out.println("Hedging, retries and breaker (including warm-up): " + resilience + ", breaker "
+                + WeatherAPIClient.getUpstreamState());
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((message, count) -> failureCounts.put(message, count.sum()));
+        failureCounts.forEach((message, count) -> System.out.printf("  %6d x %s%n", count, message));
+    }
+
+    // Heap bytes allocated by all threads so far, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String textOption(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    private record Result(long requests, long elapsedNanos, long allocatedBytes) {
+    }
+}
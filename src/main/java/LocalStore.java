@@ -0,0 +1,504 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk log of search history, fetched responses and the last viewed
+ * location, so a new session can render before the network answers.
+ *
+ * <p>Each record is {@code [length][crc32][type][payload][length]}. The trailing
+ * length lets startup read the newest records backwards from the end of the file
+ * without scanning the whole log; older history is read page by page afterwards.
+ * A torn or corrupt tail left by a crash fails its CRC and is truncated on open.
+ * All file access happens on one writer thread. A lock file keeps a second app
+ * instance from writing to the same log; that instance runs without saved history.
+ */
+public class LocalStore implements Closeable {
+
+    private static final byte HISTORY = 1;
+    private static final byte RESPONSE = 2;
+    private static final byte LAST_VIEWED = 3;
+
+    private static final int HEADER_BYTES = 9; // length + crc + type
+    private static final int TRAILER_BYTES = 4; // length again
+    private static final int MAX_PAYLOAD_BYTES = 4 * 1024 * 1024;
+    private static final long COMPACT_THRESHOLD_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_RESPONSES = 128; // Matches the client's cache capacity
+    private static final int HISTORY_PAGE = 200; // History records per read
+    private static final long TAIL_SCAN_BYTES = 1024 * 1024; // Most the startup read covers looking for history
+
+    private final Path file;
+    private final int historyCapacity;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "local-store-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private FileChannel channel; // Only touched on the writer thread
+    private FileChannel lockChannel; // Holds the lock on the ".lock" file beside the log; writer thread only
+    private boolean unavailable; // Closed, or locked by another instance; writer thread only
+    private long historyCursor; // History before this offset has not been read yet; writer thread only
+    private int historyAfterCursor; // History records from historyCursor to the end of the log
+
+    public record HistoryRecord(String displayText, double temperature, String icon) {
+    }
+
+    public record StoredResponse(long fetchedAt, byte[] body) {
+    }
+
+    // The newest state found in the log; history is oldest first, and moreHistory says
+    // whether loadOlderHistory has anything left to read
+    public record Snapshot(List<HistoryRecord> history, Map<String, StoredResponse> responses,
+            String lastQuery, String lastDisplayName, boolean moreHistory) {
+    }
+
+    public LocalStore(Path file, int historyCapacity) {
+        this.file = file;
+        this.historyCapacity = historyCapacity;
+    }
+
+    // Overridable with -Dweather.store.dir=...; otherwise the per-user config directory
+    public static Path defaultLocation() {
+        String dir = System.getProperty("weather.store.dir");
+        if (dir == null) {
+            String appData = System.getenv("APPDATA");
+            String xdgConfig = System.getenv("XDG_CONFIG_HOME");
+            if (appData != null) {
+                dir = Path.of(appData, "WeatherInformationApp").toString();
+            } else if (xdgConfig != null) {
+                dir = Path.of(xdgConfig, "weather-app").toString();
+            } else {
+                dir = Path.of(System.getProperty("user.home"), ".config", "weather-app").toString();
+            }
+        }
+        return Path.of(dir, "store.log");
+    }
+
+    /**
+     * Reads the newest records from the end of the log on the writer thread. The
+     * scan stops once a page of history, the last viewed location and the responses
+     * {@code responseKeys} names for that location have been found.
+     */
+    public CompletableFuture<Snapshot> load(Function<String, Collection<String>> responseKeys) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                ensureOpen();
+                return readTail(responseKeys);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Reads the next page of history older than everything returned so far, oldest
+     * first, on the writer thread. An empty list means the log has no more history,
+     * or the history capacity has been reached.
+     */
+    public CompletableFuture<List<HistoryRecord>> loadOlderHistory() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                ensureOpen();
+                return readHistoryPage();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    public void appendHistory(HistoryRecord record) {
+        submit(HISTORY, out -> {
+            out.writeUTF(record.displayText());
+            out.writeDouble(record.temperature());
+            out.writeUTF(record.icon());
+        });
+    }
+
+    public void appendResponse(String key, long fetchedAt, byte[] body) {
+        submit(RESPONSE, out -> {
+            out.writeUTF(key);
+            out.writeLong(fetchedAt);
+            out.writeInt(body.length);
+            out.write(body);
+        });
+    }
+
+    public void appendLastViewed(String query, String displayName) {
+        submit(LAST_VIEWED, out -> {
+            out.writeUTF(query);
+            out.writeUTF(displayName);
+        });
+    }
+
+    // Waits for queued writes to reach the disk, then releases the file. The release is the
+    // writer's last task, so a write still running when the wait ends is never cut short.
+    @Override
+    public void close() {
+        try {
+            writer.execute(this::release);
+        } catch (RejectedExecutionException e) {
+            return; // Already closed
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.out.println("Store " + file + " is still writing; it is closed once queued writes finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void release() {
+        unavailable = true;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (lockChannel != null) {
+                lockChannel.close(); // Releases the lock
+            }
+        } catch (IOException e) {
+            System.out.println("Error closing store " + file + ": " + e.getMessage());
+        }
+        channel = null;
+        lockChannel = null;
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Records that arrive after close() are dropped. close() may run on another thread at any moment,
+    // so only the executor's rejection says reliably that the store is closed.
+    private void submit(byte type, PayloadWriter payloadWriter) {
+        try {
+            writer.execute(() -> write(type, payloadWriter));
+        } catch (RejectedExecutionException e) {
+            // Store already closed
+        }
+    }
+
+    private void write(byte type, PayloadWriter payloadWriter) {
+        if (unavailable) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                payloadWriter.write(out);
+            }
+            ensureOpen();
+            append(channel, type, bytes.toByteArray());
+            channel.force(false); // A record only counts once it is on disk
+            if (type == HISTORY) {
+                historyAfterCursor++;
+            }
+            if (channel.size() > COMPACT_THRESHOLD_BYTES) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing store " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        if (unavailable) {
+            throw new IOException("Store " + file + " is closed or in use by another instance");
+        }
+        Files.createDirectories(file.getParent());
+        if (lockChannel == null) {
+            lock();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long validEnd = findValidEnd();
+        if (validEnd < channel.size()) {
+            System.out.println("Store " + file + " had a damaged tail; truncating to " + validEnd + " bytes");
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+    }
+
+    // Compaction replaces the log file, so the lock is held on a separate file that stays put
+    private void lock() throws IOException {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        FileChannel candidate = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = candidate.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // Held by another store in this JVM
+        }
+        if (lock == null) {
+            candidate.close();
+            unavailable = true;
+            throw new IOException("Store " + file + " is in use by another instance; running without saved history");
+        }
+        lockChannel = candidate;
+    }
+
+    // Refuses payloads the readers would take for a damaged tail, so nothing after them is lost
+    private static void append(FileChannel target, byte type, byte[] payload) throws IOException {
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IOException("Record of " + payload.length + " bytes exceeds the " + MAX_PAYLOAD_BYTES
+                    + " byte limit; not stored");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length + TRAILER_BYTES);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(type).put(payload).putInt(payload.length);
+        record.flip();
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    // One decoded record and the file range it occupies
+    private record Record(byte type, byte[] payload, long start, long end) {
+    }
+
+    // Reads the record starting at the given offset, or null if it is torn or corrupt
+    private Record readRecordAt(long start, long limit) throws IOException {
+        if (start + HEADER_BYTES + TRAILER_BYTES > limit) {
+            return null;
+        }
+        ByteBuffer header = readFully(start, HEADER_BYTES);
+        int length = header.getInt();
+        int crc = header.getInt();
+        byte type = header.get();
+        long end = start + HEADER_BYTES + (long) length + TRAILER_BYTES;
+        if (length < 0 || length > MAX_PAYLOAD_BYTES || end > limit) {
+            return null;
+        }
+        ByteBuffer body = readFully(start + HEADER_BYTES, length + TRAILER_BYTES);
+        byte[] payload = new byte[length];
+        body.get(payload);
+        if (body.getInt() != length) {
+            return null;
+        }
+        CRC32 check = new CRC32();
+        check.update(type);
+        check.update(payload);
+        return (int) check.getValue() == crc ? new Record(type, payload, start, end) : null;
+    }
+
+    // Reads the record that ends at the given offset using its trailing length
+    private Record readRecordEndingAt(long end) throws IOException {
+        if (end < HEADER_BYTES + TRAILER_BYTES) {
+            return null;
+        }
+        int length = readFully(end - TRAILER_BYTES, TRAILER_BYTES).getInt();
+        long start = end - TRAILER_BYTES - length - HEADER_BYTES;
+        if (length < 0 || length > MAX_PAYLOAD_BYTES || start < 0) {
+            return null;
+        }
+        Record record = readRecordAt(start, end);
+        return record != null && record.end() == end ? record : null;
+    }
+
+    // Normally just checks the last record; only a damaged tail costs a forward scan
+    private long findValidEnd() throws IOException {
+        long size = channel.size();
+        if (size == 0 || readRecordEndingAt(size) != null) {
+            return size;
+        }
+        long position = 0;
+        Record record;
+        while ((record = readRecordAt(position, size)) != null) {
+            position = record.end();
+        }
+        return position;
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of store file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // Walks backwards from the end until a page of history, the last view and its responses are known
+    private Snapshot readTail(Function<String, Collection<String>> responseKeys) throws IOException {
+        Deque<HistoryRecord> history = new ArrayDeque<>();
+        Map<String, StoredResponse> responses = new LinkedHashMap<>();
+        String lastQuery = null;
+        String lastDisplayName = null;
+        Collection<String> neededKeys = List.of();
+
+        // A search's responses are written just before its last view, and compaction puts the newest
+        // responses right before it too, so responses still missing MAX_RESPONSES records past the last
+        // view are given up on. History beyond TAIL_SCAN_BYTES is left to loadOlderHistory.
+        long size = channel.size();
+        long end = size;
+        int historyWanted = Math.min(HISTORY_PAGE, historyCapacity);
+        int sinceLastViewed = 0;
+        while (end > 0 && (lastQuery == null
+                || (history.size() < historyWanted && size - end < TAIL_SCAN_BYTES)
+                || (!responses.keySet().containsAll(neededKeys) && sinceLastViewed < MAX_RESPONSES))) {
+            Record record = readRecordEndingAt(end);
+            if (record == null) {
+                break;
+            }
+            if (lastQuery != null) {
+                sinceLastViewed++;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.payload()));
+            switch (record.type()) {
+                case HISTORY -> {
+                    if (history.size() < historyCapacity) {
+                        history.addFirst(new HistoryRecord(in.readUTF(), in.readDouble(), in.readUTF()));
+                    }
+                }
+                case RESPONSE -> {
+                    String key = in.readUTF();
+                    boolean wanted = responses.size() < MAX_RESPONSES || neededKeys.contains(key);
+                    if (!responses.containsKey(key) && wanted) {
+                        long fetchedAt = in.readLong();
+                        responses.put(key, new StoredResponse(fetchedAt, in.readNBytes(in.readInt())));
+                    }
+                }
+                case LAST_VIEWED -> {
+                    if (lastQuery == null) {
+                        lastQuery = in.readUTF();
+                        lastDisplayName = in.readUTF();
+                        neededKeys = responseKeys.apply(lastQuery);
+                    }
+                }
+                default -> {
+                    // Unknown record types from newer versions are skipped
+                }
+            }
+            end = record.start();
+        }
+        historyAfterCursor = history.size();
+        historyCursor = history.size() < historyCapacity ? end : 0;
+        return new Snapshot(new ArrayList<>(history), Collections.unmodifiableMap(responses), lastQuery,
+                lastDisplayName, historyCursor > 0);
+    }
+
+    // Continues backwards from historyCursor, skipping everything but history
+    private List<HistoryRecord> readHistoryPage() throws IOException {
+        Deque<HistoryRecord> page = new ArrayDeque<>();
+        int wanted = Math.min(HISTORY_PAGE, historyCapacity - historyAfterCursor);
+        long end = historyCursor;
+        while (end > 0 && page.size() < wanted) {
+            Record record = readRecordEndingAt(end);
+            if (record == null) {
+                end = 0;
+                break;
+            }
+            if (record.type() == HISTORY) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.payload()));
+                page.addFirst(new HistoryRecord(in.readUTF(), in.readDouble(), in.readUTF()));
+            }
+            end = record.start();
+        }
+        historyAfterCursor += page.size();
+        historyCursor = historyAfterCursor < historyCapacity ? end : 0;
+        return new ArrayList<>(page);
+    }
+
+    // Rewrites the log with only its live records, then atomically swaps it in
+    private void compact() throws IOException {
+        List<Record> historyRecords = new ArrayList<>();
+        Map<String, Record> latestResponses = new LinkedHashMap<>();
+        Record lastViewed = null;
+
+        long size = channel.size();
+        long position = 0;
+        Record record;
+        while ((record = readRecordAt(position, size)) != null) {
+            switch (record.type()) {
+                case HISTORY -> historyRecords.add(record);
+                case RESPONSE -> {
+                    String key = new DataInputStream(new ByteArrayInputStream(record.payload())).readUTF();
+                    latestResponses.remove(key); // Re-insert so iteration order stays oldest to newest
+                    latestResponses.put(key, record);
+                }
+                case LAST_VIEWED -> lastViewed = record;
+                default -> {
+                }
+            }
+            position = record.end();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // History already handed out stays handed out: the cursor moves to the oldest such record
+            List<Record> keptHistory = historyRecords.subList(Math.max(0, historyRecords.size() - historyCapacity),
+                    historyRecords.size());
+            int firstAfterCursor = keptHistory.size() - historyAfterCursor;
+            long newCursor = 0;
+            for (int i = 0; i < keptHistory.size(); i++) {
+                if (i == firstAfterCursor) {
+                    newCursor = out.position();
+                }
+                append(out, keptHistory.get(i).type(), keptHistory.get(i).payload());
+            }
+            if (historyCursor > 0) {
+                historyCursor = newCursor;
+            }
+            // The newest responses go right before the last view, where startup looks for them
+            List<Record> responses = new ArrayList<>(latestResponses.values());
+            for (Record response : responses.subList(Math.max(0, responses.size() - MAX_RESPONSES),
+                    responses.size())) {
+                append(out, response.type(), response.payload());
+            }
+            if (lastViewed != null) {
+                append(out, lastViewed.type(), lastViewed.payload());
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        channel = null;
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(file.getParent()); // The rename itself must reach the disk too
+        ensureOpen();
+    }
+
+    private static void forceDirectory(Path dir) {
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Directories can't be opened on Windows, where NTFS journals the rename anyway
+        }
+    }
+}
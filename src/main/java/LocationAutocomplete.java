@@ -0,0 +1,81 @@
+import java.util.List;
+import javafx.application.Platform;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+// Type-ahead suggestions for the location field, answered from the offline CityIndex
+public class LocationAutocomplete {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final TextField field;
+    private final ContextMenu suggestions = new ContextMenu();
+    private CityIndex index; // Null until the bundled city list has loaded
+    private CityIndex.City selected; // Last suggestion picked, valid while the text still matches it
+
+    public LocationAutocomplete(TextField field) {
+        this.field = field;
+        // The city list is only read once the user starts interacting with the field
+        field.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (focused) {
+                loadIndex();
+            } else {
+                suggestions.hide();
+            }
+        });
+        field.textProperty().addListener((obs, oldText, text) -> showSuggestions(text));
+    }
+
+    /**
+     * Returns what should be sent upstream for the field's current text: the city
+     * ID if the text is an unchanged suggestion, otherwise the text itself.
+     */
+    public String resolve() {
+        String text = field.getText();
+        if (selected != null && selected.label().equals(text)) {
+            return String.valueOf(selected.id());
+        }
+        return text;
+    }
+
+    private void loadIndex() {
+        if (index == null) {
+            CityIndex.shared()
+                    .thenAccept(loaded -> Platform.runLater(() -> index = loaded))
+                    .exceptionally(ex -> {
+                        System.out.println("Error loading city list: " + ex.getMessage());
+                        return null; // Typing still works, just without suggestions
+                    });
+        }
+    }
+
+    private void showSuggestions(String text) {
+        if (index == null || !field.isFocused() || (selected != null && selected.label().equals(text))) {
+            suggestions.hide();
+            return;
+        }
+        List<CityIndex.City> matches = index.lookup(text, MAX_SUGGESTIONS);
+        if (matches.isEmpty()) {
+            suggestions.hide();
+            return;
+        }
+
+        suggestions.getItems().clear();
+        for (CityIndex.City city : matches) {
+            CustomMenuItem item = new CustomMenuItem(new Label(city.label()), true);
+            item.setOnAction(e -> {
+                selected = city;
+                field.setText(city.label());
+                field.positionCaret(city.label().length());
+                suggestions.hide();
+            });
+            suggestions.getItems().add(item);
+        }
+        if (!suggestions.isShowing()) {
+            suggestions.show(field, Side.BOTTOM, 0, 0);
+        }
+    }
+}
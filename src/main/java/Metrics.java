@@ -0,0 +1,79 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Process-wide registry of latency histograms and counters. Names are dotted,
+// "<stage>.<detail>": fetch.weather, decode.forecast, image.icon, bytes.group,
+// errors.weather, fx.stall and so on.
+public final class Metrics {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final String MBEAN_NAME = "WeatherApp:type=Metrics";
+
+    private Metrics() {
+    }
+
+    // Hot paths should keep the returned histogram in a field rather than look it up per event
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public static Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    public static Map<String, LatencyHistogram.Summary> latencies() {
+        Map<String, LatencyHistogram.Summary> summaries = new TreeMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> summaries.put(name, histogram.summary()));
+        return summaries;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+
+    // Publishes the metrics over JMX; calling it again is harmless
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+        } catch (JMException e) {
+            System.out.println("Error registering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    private static final class MBean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return counters();
+        }
+
+        @Override
+        public Map<String, String> getLatencies() {
+            Map<String, String> lines = new TreeMap<>();
+            latencies().forEach((name, summary) -> lines.put(name, summary.toString()));
+            return lines;
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
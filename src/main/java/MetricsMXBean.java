@@ -0,0 +1,13 @@
+import java.util.Map;
+
+// Management view of Metrics, registered as WeatherApp:type=Metrics (e.g. for JConsole or VisualVM)
+public interface MetricsMXBean {
+
+    // Event counters such as bytes.weather or errors.forecast
+    Map<String, Long> getCounters();
+
+    // One line per latency histogram: count, mean, p50/p90/p99 and max in milliseconds
+    Map<String, String> getLatencies();
+
+    void reset();
+}
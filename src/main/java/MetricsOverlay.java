@@ -0,0 +1,60 @@
+import java.util.Map;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+// Debug overlay listing every latency histogram and counter, toggled with F12. It
+// only refreshes (once a second) while it is showing.
+public final class MetricsOverlay extends Label {
+
+    private final Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> update()));
+
+    public MetricsOverlay() {
+        setVisible(false);
+        setManaged(false);
+        setMouseTransparent(true);
+        setPadding(new Insets(8));
+        setStyle("-fx-font-family: monospace; -fx-font-size: 11px; -fx-text-fill: white;"
+                + " -fx-background-color: rgba(0, 0, 0, 0.8); -fx-background-radius: 6;");
+        StackPane.setAlignment(this, Pos.TOP_LEFT);
+        StackPane.setMargin(this, new Insets(10));
+        refresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public void toggle() {
+        boolean show = !isVisible();
+        setVisible(show);
+        setManaged(show);
+        if (show) {
+            update();
+            refresh.play();
+        } else {
+            refresh.stop();
+        }
+    }
+
+    private void update() {
+        StringBuilder text = new StringBuilder(String.format("%-18s %7s %8s %8s %8s", "Latency (ms)", "n", "p50", "p99",
+                "max"));
+        for (Map.Entry<String, LatencyHistogram.Summary> entry : Metrics.latencies().entrySet()) {
+            LatencyHistogram.Summary s = entry.getValue();
+            text.append(String.format("\n%-18s %7d %8.2f %8.2f %8.2f", entry.getKey(), s.count(), s.p50Millis(),
+                    s.p99Millis(), s.maxMillis()));
+        }
+        text.append("\n\nCounters");
+        for (Map.Entry<String, Long> entry : Metrics.counters().entrySet()) {
+            text.append(String.format("\n%-18s %7d", entry.getKey(), entry.getValue()));
+        }
+        ResponseCache.Stats cache = WeatherAPIClient.getCacheStats();
+        SingleFlight.Stats inFlight = WeatherAPIClient.getInFlightStats();
+        text.append(String.format("\n\ncache %d/%d  hits %d  stale %d  misses %d", cache.size(), cache.capacity(),
+                cache.hits(), cache.staleHits(), cache.misses()));
+        text.append(String.format("\ncoalesced %d of %d calls", inFlight.coalesced(), inFlight.calls()));
+        setText(text.toString());
+    }
+}
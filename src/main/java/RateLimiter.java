@@ -0,0 +1,56 @@
+import java.util.concurrent.TimeUnit;
+
+// Token bucket shared by every upstream call. Tokens refill evenly so that, together
+// with the initial burst, no 60-second window exceeds callsPerMinute requests. A burst
+// of the whole quota (e.g. 1 call per minute) refills one token per minute.
+public class RateLimiter {
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private double tokens; // May go negative: callers reserve future tokens and sleep until they exist
+    private long lastRefill;
+
+    public RateLimiter(int callsPerMinute, int burst) {
+        if (callsPerMinute <= 0 || burst <= 0 || burst > callsPerMinute) {
+            throw new IllegalArgumentException("Need 0 < burst <= callsPerMinute");
+        }
+        this.capacity = burst;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / (double) Math.max(1, callsPerMinute - burst);
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Blocks until a call may be made, unless that would take longer than maxWaitNanos. Then
+    // nothing is reserved and false is returned, so the caller can fail fast instead of queueing.
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) * nanosPerToken);
+            if (waitNanos > maxWaitNanos) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    // Takes a token only if one is available now, for optional calls that are not worth waiting for
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Keeps watched locations up to date in the background. Current weather and forecast are
+// revalidated on their own jittered schedules with conditional requests, so an unchanged
+// response costs a 304 and no decoding. Rate limiting and server errors back off
+// exponentially, and only values that actually changed reach the listener.
+public class RefreshScheduler {
+
+    // Matches how often OpenWeather updates each endpoint, and the client's cache TTLs
+    private static final long WEATHER_INTERVAL_MILLIS = 10 * 60 * 1000L;
+    private static final long FORECAST_INTERVAL_MILLIS = 30 * 60 * 1000L;
+    private static final long MAX_BACKOFF_MILLIS = 60 * 60 * 1000L;
+    private static final double JITTER = 0.1; // Every delay varies by up to ±10%
+    private static final long RESUME_SPREAD_MILLIS = 5_000; // Refreshes missed while paused are spread over this
+
+    // Receives changed values on a background thread
+    public interface Listener {
+        void onConditionsChanged(String location, CurrentConditions conditions);
+
+        void onForecastChanged(String location, ForecastSeries forecast);
+    }
+
+    private final Listener listener;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "weather-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private volatile boolean paused;
+
+    public RefreshScheduler(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts refreshing {@code location} in the background. The values already on
+     * screen are passed in so the first refresh only reports what differs from them;
+     * either may be null.
+     */
+    public void watch(String location, CurrentConditions current, ForecastSeries forecast) {
+        Watch watch = new Watch(
+                new Track<>(location, WEATHER_INTERVAL_MILLIS, WeatherAPIClient::revalidateWeatherDataAsync,
+                        WeatherDecoder::decodeCurrent, listener::onConditionsChanged, current),
+                new Track<>(location, FORECAST_INTERVAL_MILLIS, WeatherAPIClient::revalidateForecastDataAsync,
+                        WeatherDecoder::decodeForecast, listener::onForecastChanged, forecast));
+        Watch previous = watches.put(location, watch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        watch.weather.schedule(WEATHER_INTERVAL_MILLIS);
+        watch.forecast.schedule(FORECAST_INTERVAL_MILLIS);
+    }
+
+    public void unwatch(String location) {
+        Watch watch = watches.remove(location);
+        if (watch != null) {
+            watch.cancel();
+        }
+    }
+
+    // While paused (e.g. the window is minimized) nothing is fetched; refreshes that fell due run on resume
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused) {
+            for (Watch watch : watches.values()) {
+                watch.weather.resume();
+                watch.forecast.resume();
+            }
+        }
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        watches.clear();
+    }
+
+    private static long jitter(long delayMillis) {
+        double factor = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (delayMillis * factor);
+    }
+
+    private record Watch(Track<CurrentConditions> weather, Track<ForecastSeries> forecast) {
+        void cancel() {
+            weather.cancel();
+            forecast.cancel();
+        }
+    }
+
+    // One endpoint of one location; at most one refresh is scheduled or in flight at a time
+    private final class Track<T> {
+        private final String location;
+        private final long intervalMillis;
+        private final Function<String, CompletableFuture<byte[]>> revalidate;
+        private final Function<byte[], T> decoder;
+        private final BiConsumer<String, T> onChanged;
+
+        private T lastValue;
+        private byte[] lastBody;
+        private int failures; // Consecutive transient failures, drives the backoff
+        private boolean dueWhilePaused;
+        private boolean cancelled;
+        private ScheduledFuture<?> next;
+        private CompletableFuture<byte[]> inFlight;
+
+        private Track(String location, long intervalMillis, Function<String, CompletableFuture<byte[]>> revalidate,
+                Function<byte[], T> decoder, BiConsumer<String, T> onChanged, T initialValue) {
+            this.location = location;
+            this.intervalMillis = intervalMillis;
+            this.revalidate = revalidate;
+            this.decoder = decoder;
+            this.onChanged = onChanged;
+            this.lastValue = initialValue;
+        }
+
+        synchronized void schedule(long delayMillis) {
+            if (!cancelled && !timer.isShutdown()) {
+                next = timer.schedule(this::run, jitter(delayMillis), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void resume() {
+            if (dueWhilePaused) {
+                dueWhilePaused = false;
+                schedule(ThreadLocalRandom.current().nextLong(RESUME_SPREAD_MILLIS));
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+            if (inFlight != null) {
+                inFlight.cancel(true);
+            }
+        }
+
+        private synchronized void run() {
+            if (cancelled) {
+                return;
+            }
+            if (paused) {
+                dueWhilePaused = true;
+                return;
+            }
+            inFlight = revalidate.apply(location);
+            inFlight.whenComplete(this::completed);
+        }
+
+        private void completed(byte[] body, Throwable ex) {
+            T changed = null;
+            long delay;
+            synchronized (this) {
+                inFlight = null;
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    if (ex != null) {
+                        throw ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    }
+                    // The client hands back the very same array when upstream reports no change
+                    if (body != lastBody) {
+                        T value = decoder.apply(body);
+                        lastBody = body;
+                        if (!value.equals(lastValue)) {
+                            lastValue = value;
+                            changed = value;
+                        }
+                    }
+                    failures = 0;
+                    delay = intervalMillis;
+                } catch (WeatherApiException e) {
+                    if (e.isTransient()) {
+                        failures++;
+                        delay = Math.min(MAX_BACKOFF_MILLIS, intervalMillis << Math.min(failures, 8));
+                    } else {
+                        delay = intervalMillis; // Not something waiting will fix; try again on the normal schedule
+                    }
+                } catch (Throwable e) {
+                    delay = intervalMillis;
+                }
+            }
+            if (changed != null) {
+                onChanged.accept(location, changed);
+            }
+            schedule(delay);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Bounded, thread-safe LRU cache with per-entry TTLs and stale-while-revalidate
+public class ResponseCache<V> {
+
+    private final int maxEntries;
+    private final long staleWindowMillis; // How long past expiry a stale value may still be served
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResponseCache(int maxEntries, long staleWindowMillis) {
+        this.maxEntries = maxEntries;
+        this.staleWindowMillis = staleWindowMillis;
+        // Access-ordered so the eldest entry is always the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading it on a miss. A value that has
+     * expired but is still inside the stale window is returned immediately while
+     * a single background refresh replaces it. A loader that throws stores
+     * nothing and the exception reaches the caller.
+     */
+    public V get(String key, long ttlMillis, Supplier<V> loader, Executor refresher) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && now < entry.expiresAt) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+
+        if (entry != null && now < entry.expiresAt + staleWindowMillis) {
+            staleHits.incrementAndGet();
+            if (entry.refreshing.compareAndSet(false, true)) {
+                refresher.execute(() -> {
+                    try {
+                        put(key, loader.get(), ttlMillis);
+                    } catch (RuntimeException e) {
+                        // Keep serving the stale value; the next request past expiry tries again
+                    } finally {
+                        entry.refreshing.set(false);
+                    }
+                });
+            }
+            return entry.value;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.get();
+        put(key, value, ttlMillis);
+        return value;
+    }
+
+    // The cached value however old it is, or null; for when nothing fresher can be had
+    public synchronized V getLastKnown(String key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public synchronized void put(String key, V value, long ttlMillis) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    // Seeds an entry whose freshness was decided elsewhere, e.g. a response restored from disk
+    public synchronized void putExpiringAt(String key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), staleHits.get(), misses.get(), evictions.get(), size, maxEntries);
+    }
+
+    // Snapshot of the cache counters, used to size the cache and track API quota savings
+    public record Stats(long hits, long staleHits, long misses, long evictions, int size, int capacity) {
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
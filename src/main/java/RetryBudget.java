@@ -0,0 +1,33 @@
+// Caps the extra calls made on top of ordinary requests (hedges and retries). Each
+// ordinary request earns ratio of a token and every extra call spends a whole one, so
+// over time extra calls stay below that share of the traffic; maxTokens bounds how
+// many can be spent in a burst after a quiet spell. Starts with a full bucket.
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio <= 0 || ratio >= 1 || maxTokens < 1) {
+            throw new IllegalArgumentException("Need 0 < ratio < 1 and maxTokens >= 1");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    // Records an ordinary request
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    // Spends a token for one extra call, or returns false if the budget is used up
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
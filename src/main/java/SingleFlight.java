@@ -0,0 +1,57 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Coalesces concurrent calls for the same key into one in-flight future. Each caller
+// gets its own copy, so one caller cancelling never cancels the work others wait on.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        calls.incrementAndGet();
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return track(existing.copy());
+        }
+
+        try {
+            call.get().whenComplete((value, ex) -> {
+                inFlight.remove(key, shared);
+                if (ex != null) {
+                    shared.completeExceptionally(ex);
+                } else {
+                    shared.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+        return track(shared.copy());
+    }
+
+    private CompletableFuture<V> track(CompletableFuture<V> callerFuture) {
+        callerFuture.whenComplete((value, ex) -> {
+            if (callerFuture.isCancelled()) {
+                cancelled.incrementAndGet();
+            }
+        });
+        return callerFuture;
+    }
+
+    public Stats getStats() {
+        return new Stats(calls.get(), coalesced.get(), cancelled.get(), inFlight.size());
+    }
+
+    // coalesced: calls that joined an existing request; cancelled: callers that gave up waiting
+    public record Stats(long calls, long coalesced, long cancelled, int inFlight) {
+    }
+}
@@ -1,69 +1,511 @@
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 public class WeatherAPIClient {
 
-    private static final String API_KEY = "ADD_API_KEY_HERE";
-    private static final String WEATHER_API_URL = "http://api.openweathermap.org/data/2.5/weather";
-    private static final String FORECAST_API_URL = "http://api.openweathermap.org/data/2.5/forecast";
+    private static final String API_KEY = System.getProperty("weather.api.key", "ADD_API_KEY_HERE");
+    private static final String DEFAULT_BASE_URL = "https://api.openweathermap.org/data/2.5";
+    // Everything is requested in metric (°C, m/s); DisplayUnit converts for display
+    private static final String CANONICAL_UNITS = "metric";
 
-    public static String getWeatherData(String location, String unit) {
-        StringBuilder result = new StringBuilder();
-        try {
-            String urlString = WEATHER_API_URL + "?q=" + location + "&appid=" + API_KEY + "&units=" + unit;
-            URL url = new URL(urlString);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) { // Success
-                BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    result.append(line);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    // The free OpenWeather plan allows 60 calls per minute; cache hits do not count
+    private static final int DEFAULT_CALLS_PER_MINUTE = 60;
+    private static final int CALLS_PER_MINUTE = callsPerMinute();
+    private static final RateLimiter RATE_LIMITER = new RateLimiter(CALLS_PER_MINUTE,
+            Math.max(1, Math.min(CALLS_PER_MINUTE / 6, CALLS_PER_MINUTE - 1)));
+    // A call that would queue longer than this for the rate limit fails instead of hanging the search
+    private static final long MAX_RATE_LIMIT_WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    public static final int MAX_GROUP_SIZE = 20; // Most city IDs one /group call accepts
+
+    // A request still unanswered at the endpoint's observed p95 gets a second, hedged copy and
+    // the first answer wins. Hedges and retries share a budget of 10% of requests (plus a small
+    // burst), and hedges only use rate limiter tokens that are free right now, so quota use stays
+    // bounded however slow upstream gets.
+    private static final double HEDGE_QUANTILE = 0.95;
+    private static final int HEDGE_MIN_SAMPLES = 20; // Below this the p95 is mostly noise
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final RetryBudget EXTRA_CALLS = new RetryBudget(0.1, 5);
+
+    // Five failures in a row stop all calls for 15 s, then one trial call probes upstream
+    private static final CircuitBreaker BREAKER = new CircuitBreaker(5, 15_000, 5 * 60_000);
+
+    // Blocking fetches run here so callers (e.g. the JavaFX thread) never wait on the network
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // One client for the whole app so connections are kept alive and HTTP/2 is negotiated once
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(FETCH_EXECUTOR)
+            .build();
+
+    // Current conditions change every ~10 minutes upstream, the 3-hourly forecast far less often
+    private static final long WEATHER_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final long FORECAST_TTL_MILLIS = 30 * 60 * 1000L;
+    private static final long STALE_WINDOW_MILLIS = 60 * 60 * 1000L;
+    private static final int CACHE_CAPACITY = 128;
+
+    private static final ResponseCache<byte[]> RESPONSE_CACHE = new ResponseCache<>(CACHE_CAPACITY,
+            STALE_WINDOW_MILLIS);
+
+    // Validators and body of the last 200 per cache key, replayed as If-None-Match / If-Modified-Since
+    private static final Map<String, Validators> VALIDATORS = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Validators> eldest) {
+                    return size() > CACHE_CAPACITY;
                 }
-                reader.close();
-            } else if (responseCode == 404) { // Not Found
-                return "Error: Location not found";
-            } else { // Other errors
-                return "Error: API request failed with response code " + responseCode;
-            }
+            });
+
+    // Concurrent async requests for the same endpoint and location share one fetch
+    private static final SingleFlight<String, byte[]> IN_FLIGHT = new SingleFlight<>();
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Error: Network issue or invalid request";
+    private static volatile LocalStore responseStore; // Persists fresh responses for the next session, if set
+
+    // Overridable with -Dweather.api.baseUrl=... or setBaseUrl, e.g. to point at a local stand-in server
+    private static volatile String baseUrl = System.getProperty("weather.api.baseUrl", DEFAULT_BASE_URL);
+
+    // -Dweather.api.callsPerMinute; anything below 1 falls back to the default instead of failing class init
+    private static int callsPerMinute() {
+        int calls = Integer.getInteger("weather.api.callsPerMinute", DEFAULT_CALLS_PER_MINUTE);
+        if (calls < 1) {
+            System.out.println("Error: weather.api.callsPerMinute must be at least 1; using "
+                    + DEFAULT_CALLS_PER_MINUTE);
+            return DEFAULT_CALLS_PER_MINUTE;
         }
-        return result.toString();
+        return calls;
+    }
+
+    public static void setBaseUrl(String url) {
+        baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        RESPONSE_CACHE.clear(); // Responses from the previous upstream must not leak through
+        VALIDATORS.clear();
+        BREAKER.reset();
+    }
+
+    // Told about every circuit breaker transition, e.g. to tell the user saved data is being shown
+    public static void setUpstreamListener(Consumer<CircuitBreaker.State> listener) {
+        BREAKER.setListener(listener);
+    }
+
+    public static CircuitBreaker.State getUpstreamState() {
+        return BREAKER.getState();
+    }
+
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public static void setResponseStore(LocalStore store) {
+        responseStore = store;
+    }
+
+    // Restores responses saved by a previous session; their age decides whether they are fresh or stale
+    public static void seedCache(Map<String, LocalStore.StoredResponse> responses) {
+        responses.forEach((key, response) -> {
+            long ttl = key.startsWith("forecast|") ? FORECAST_TTL_MILLIS : WEATHER_TTL_MILLIS;
+            RESPONSE_CACHE.putExpiringAt(key, response.body(), response.fetchedAt() + ttl);
+        });
+    }
+
+    public static CompletableFuture<byte[]> getWeatherDataAsync(String location) {
+        return IN_FLIGHT.execute(cacheKey("weather", location),
+                () -> CompletableFuture.supplyAsync(() -> getWeatherData(location), FETCH_EXECUTOR));
+    }
+
+    public static CompletableFuture<byte[]> getForecastDataAsync(String location) {
+        return IN_FLIGHT.execute(cacheKey("forecast", location),
+                () -> CompletableFuture.supplyAsync(() -> getForecastData(location), FETCH_EXECUTOR));
+    }
+
+    // Typed variants: the payload is decoded once on the fetch thread, errors complete exceptionally
+    public static CompletableFuture<CurrentConditions> getCurrentConditionsAsync(String location) {
+        return decodeAsync(getWeatherDataAsync(location), WeatherDecoder::decodeCurrent);
     }
 
-    public static String getForecastData(String location, String unit) {
-        StringBuilder result = new StringBuilder();
+    public static CompletableFuture<ForecastSeries> getForecastAsync(String location) {
+        return decodeAsync(getForecastDataAsync(location), WeatherDecoder::decodeForecast);
+    }
+
+    // Cancelling the decoded future also cancels the caller's share of the request
+    private static <T> CompletableFuture<T> decodeAsync(CompletableFuture<byte[]> data, Function<byte[], T> decoder) {
+        CompletableFuture<T> decoded = data.thenApply(decoder);
+        decoded.whenComplete((value, ex) -> {
+            if (decoded.isCancelled()) {
+                data.cancel(true);
+            }
+        });
+        return decoded;
+    }
+
+    public static byte[] getWeatherData(String location) {
+        String key = cacheKey("weather", location);
+        return withLastKnown(key, "weather", () -> RESPONSE_CACHE.get(key, WEATHER_TTL_MILLIS,
+                () -> fetchLocation(key, "weather", location), FETCH_EXECUTOR));
+    }
+
+    public static byte[] getForecastData(String location) {
+        String key = cacheKey("forecast", location);
+        return withLastKnown(key, "forecast", () -> RESPONSE_CACHE.get(key, FORECAST_TTL_MILLIS,
+                () -> fetchLocation(key, "forecast", location), FETCH_EXECUTOR));
+    }
+
+    // While upstream is down or overloaded, the last copy we have, however old, beats an error
+    private static byte[] withLastKnown(String key, String endpoint, Supplier<byte[]> fetch) {
         try {
-            String urlString = FORECAST_API_URL + "?q=" + location + "&appid=" + API_KEY + "&units=" + unit;
-            URL url = new URL(urlString);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) { // Success
-                BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    result.append(line);
+            return fetch.get();
+        } catch (WeatherApiException e) {
+            byte[] lastKnown = e.isTransient() ? RESPONSE_CACHE.getLastKnown(key) : null;
+            if (lastKnown == null) {
+                throw e;
+            }
+            Metrics.counter("lastKnown." + endpoint).increment();
+            return lastKnown;
+        }
+    }
+
+    /**
+     * Asks upstream for the current weather now, even if the cached copy is still
+     * fresh, and caches the answer. When nothing changed the previously returned
+     * array itself comes back, so callers can compare by identity and skip decoding.
+     */
+    public static CompletableFuture<byte[]> revalidateWeatherDataAsync(String location) {
+        return revalidateAsync("weather", location, WEATHER_TTL_MILLIS);
+    }
+
+    public static CompletableFuture<byte[]> revalidateForecastDataAsync(String location) {
+        return revalidateAsync("forecast", location, FORECAST_TTL_MILLIS);
+    }
+
+    private static CompletableFuture<byte[]> revalidateAsync(String endpoint, String location, long ttlMillis) {
+        String key = cacheKey(endpoint, location);
+        return CompletableFuture.supplyAsync(() -> {
+            byte[] body = fetchLocation(key, endpoint, location);
+            RESPONSE_CACHE.put(key, body, ttlMillis);
+            return body;
+        }, FETCH_EXECUTOR);
+    }
+
+    /**
+     * Fetches current conditions for up to {@link #MAX_GROUP_SIZE} city IDs in one
+     * /group call. Cities the API does not know are simply absent from the result.
+     */
+    public static List<CurrentConditions> getCurrentConditionsForIds(List<Long> cityIds) {
+        if (cityIds.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_GROUP_SIZE + " IDs per group request");
+        }
+        String ids = cityIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return WeatherDecoder.decodeGroup(fetch("group", "id", ids, "units", CANONICAL_UNITS));
+    }
+
+    public static ResponseCache.Stats getCacheStats() {
+        return RESPONSE_CACHE.getStats();
+    }
+
+    public static SingleFlight.Stats getInFlightStats() {
+        return IN_FLIGHT.getStats();
+    }
+
+    // A location made only of digits is an OpenWeather city ID, anything else a name to search for
+    public static boolean isCityId(String location) {
+        String trimmed = location.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (!Character.isDigit(trimmed.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String locationParam(String location) {
+        return isCityId(location) ? "id" : "q";
+    }
+
+    // "London", " london " and "LONDON" all share one entry
+    static String cacheKey(String endpoint, String location) {
+        String normalized = location.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return endpoint + '|' + normalized;
+    }
+
+    /**
+     * Performs one GET against {@code baseUrl/endpoint} with the given query
+     * parameters (name/value pairs, encoded here) and returns the raw response
+     * body, decompressed if the server sent it gzipped.
+     *
+     * @throws WeatherApiException if the request fails or the status is not 200
+     */
+    private static byte[] fetch(String endpoint, String... params) {
+        return checkedBody(endpoint, send(endpoint, newRequest(endpoint, params).build()));
+    }
+
+    /**
+     * Fetches one location from {@code endpoint} as a conditional GET when an
+     * earlier response left validators. If upstream answers 304, or sends a body
+     * identical to the last one, the earlier array is returned unchanged and
+     * nothing is written to the local store.
+     */
+    private static byte[] fetchLocation(String key, String endpoint, String location) {
+        HttpRequest.Builder request = newRequest(endpoint, locationParam(location), location.trim(),
+                "units", CANONICAL_UNITS);
+        Validators previous = VALIDATORS.get(key);
+        if (previous != null) {
+            if (previous.etag() != null) {
+                request.header("If-None-Match", previous.etag());
+            }
+            if (previous.lastModified() != null) {
+                request.header("If-Modified-Since", previous.lastModified());
+            }
+        }
+
+        HttpResponse<byte[]> response = send(endpoint, request.build());
+        if (response.statusCode() == 304 && previous != null) { // Not Modified
+            Metrics.counter("notModified." + endpoint).increment();
+            return previous.body();
+        }
+        byte[] body = checkedBody(endpoint, response);
+        if (previous != null && Arrays.equals(previous.body(), body)) {
+            return previous.body();
+        }
+
+        VALIDATORS.put(key, new Validators(response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), body));
+        LocalStore store = responseStore;
+        if (store != null) {
+            store.appendResponse(key, System.currentTimeMillis(), body);
+        }
+        return body;
+    }
+
+    private static HttpRequest.Builder newRequest(String endpoint, String... params) {
+        StringBuilder url = new StringBuilder(baseUrl).append('/').append(endpoint).append("?appid=")
+                .append(URLEncoder.encode(API_KEY, StandardCharsets.UTF_8));
+        for (int i = 0; i + 1 < params.length; i += 2) {
+            url.append('&').append(params[i]).append('=')
+                    .append(URLEncoder.encode(params[i + 1], StandardCharsets.UTF_8));
+        }
+
+        return HttpRequest.newBuilder(URI.create(url.toString()))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+    }
+
+    /**
+     * Sends one request through the circuit breaker, retrying once (budget permitting)
+     * when the connection fails or upstream answers 5xx. Timeouts are not retried, since
+     * hedging already covers slow answers, and 429s are not either.
+     */
+    private static HttpResponse<byte[]> send(String endpoint, HttpRequest request) {
+        if (!BREAKER.tryAcquire()) {
+            Metrics.counter("rejected." + endpoint).increment();
+            throw new WeatherApiException("Error: Weather service is unreachable, try again shortly", null, true);
+        }
+        EXTRA_CALLS.onRequest();
+        for (int attempt = 0; ; attempt++) {
+            boolean retry = attempt == 0 && BREAKER.getState() == CircuitBreaker.State.CLOSED;
+            try {
+                HttpResponse<byte[]> response = exchange(endpoint, request);
+                if (response.statusCode() >= 500 && retry && EXTRA_CALLS.tryWithdraw()) {
+                    Metrics.counter("retries." + endpoint).increment();
+                    continue;
+                }
+                if (response.statusCode() == 429 || response.statusCode() >= 500) {
+                    BREAKER.onFailure();
+                } else {
+                    BREAKER.onSuccess();
+                }
+                return response;
+            } catch (HttpTimeoutException e) {
+                Metrics.counter("errors." + endpoint).increment();
+                BREAKER.onFailure();
+                throw new WeatherApiException("Error: Request timed out", e, true);
+            } catch (IOException e) {
+                Metrics.counter("errors." + endpoint).increment();
+                if (retry && EXTRA_CALLS.tryWithdraw()) {
+                    Metrics.counter("retries." + endpoint).increment();
+                    continue;
+                }
+                BREAKER.onFailure();
+                System.out.println("Error: /" + endpoint + " request failed: " + e);
+                throw new WeatherApiException("Error: Network issue or invalid request", e, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WeatherApiException("Error: Request was interrupted", e);
+            }
+        }
+    }
+
+    // One exchange under the rate limit, hedged once it outlasts the endpoint's p95; records the
+    // latency of whichever answer won and its size under the endpoint's name
+    private static HttpResponse<byte[]> exchange(String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        if (!RATE_LIMITER.acquire(MAX_RATE_LIMIT_WAIT_NANOS)) {
+            Metrics.counter("throttled." + endpoint).increment();
+            throw new WeatherApiException("Error: Too many requests, try again shortly", 429);
+        }
+        LatencyHistogram latency = Metrics.histogram("fetch." + endpoint);
+        long start = System.nanoTime();
+        Hedged<HttpResponse<byte[]>> exchange = new Hedged<>(sendAsync(request));
+        long hedgeDelay = hedgeDelayNanos(latency);
+        if (hedgeDelay > 0) {
+            // Fired from the shared delay scheduler, so the caller simply waits for the first answer
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!exchange.isDone() && EXTRA_CALLS.tryWithdraw() && RATE_LIMITER.tryAcquire()) {
+                    Metrics.counter("hedges." + endpoint).increment();
+                    exchange.hedge(sendAsync(request));
                 }
-                reader.close();
-            } else if (responseCode == 404) { // Not Found
-                return "Error: Location not found";
-            } else { // Other errors
-                return "Error: API request failed with response code " + responseCode;
+            });
+        }
+        try {
+            HttpResponse<byte[]> response = exchange.get();
+            latency.recordSince(start);
+            Metrics.counter("bytes." + endpoint).add(response.body().length);
+            if (exchange.wonByHedge()) {
+                Metrics.counter("hedgeWins." + endpoint).increment();
+            }
+            return response;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException failure) {
+                throw failure;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            exchange.cancel(); // Aborts whichever copy lost, or both if the caller was interrupted
+        }
+    }
+
+    private static CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+        return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // 0 (no hedging) until the endpoint has enough samples, and while the breaker is probing
+    private static long hedgeDelayNanos(LatencyHistogram latency) {
+        if (latency.count() < HEDGE_MIN_SAMPLES || BREAKER.getState() != CircuitBreaker.State.CLOSED) {
+            return 0;
+        }
+        long p95 = (long) (latency.percentileMillis(HEDGE_QUANTILE) * 1_000_000);
+        return Math.max(MIN_HEDGE_DELAY_NANOS, p95);
+    }
+
+    private static byte[] checkedBody(String endpoint, HttpResponse<byte[]> response) {
+        int responseCode = response.statusCode();
+        if (responseCode != 200) {
+            Metrics.counter("errors." + endpoint).increment();
+        }
+        if (responseCode == 404) { // Not Found
+            throw new WeatherApiException("Error: Location not found", responseCode);
+        } else if (responseCode != 200) { // Other errors
+            throw new WeatherApiException("Error: API request failed with response code " + responseCode,
+                    responseCode);
+        }
+        return decodeBody(response);
+    }
+
+    private static byte[] decodeBody(HttpResponse<byte[]> response) {
+        byte[] body = response.body();
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip")).orElse(false);
+        if (!gzipped) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new WeatherApiException("Error: Unexpected response from weather service", e);
+        }
+    }
+
+    // A request and possibly one hedged copy of it. Completes with the first copy to succeed,
+    // or with the last failure once every copy sent has failed.
+    private static final class Hedged<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final CompletableFuture<T> primary;
+        private volatile CompletableFuture<T> hedge;
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        Hedged(CompletableFuture<T> primary) {
+            this.primary = primary;
+            settleFrom(primary);
+        }
+
+        boolean isDone() {
+            return result.isDone();
+        }
+
+        void hedge(CompletableFuture<T> copy) {
+            pending.incrementAndGet();
+            hedge = copy;
+            settleFrom(copy);
+            if (result.isDone()) {
+                copy.cancel(true); // The primary settled while the copy was being sent
+            }
+        }
+
+        T get() throws InterruptedException, ExecutionException {
+            return result.get();
+        }
+
+        boolean wonByHedge() {
+            CompletableFuture<T> copy = hedge;
+            return copy != null && copy.isDone() && !copy.isCompletedExceptionally() && copy.join() == result.join();
+        }
+
+        void cancel() {
+            primary.cancel(true);
+            CompletableFuture<T> copy = hedge;
+            if (copy != null) {
+                copy.cancel(true);
             }
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Error: Network issue or invalid request";
+        private void settleFrom(CompletableFuture<T> copy) {
+            copy.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause() : ex);
+                }
+            });
         }
-        return result.toString();
+    }
+
+    private record Validators(String etag, String lastModified, byte[] body) {
     }
 }
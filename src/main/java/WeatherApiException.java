@@ -0,0 +1,54 @@
+import java.util.concurrent.CompletionException;
+
+// Raised when a weather request or its response cannot be turned into usable data.
+// The message is user-facing, in the same "Error: ..." form the client has always reported.
+public class WeatherApiException extends RuntimeException {
+
+    private final int statusCode; // HTTP status that caused the failure, or 0 if there was no response
+    private final boolean noResponse; // Upstream could not be reached or did not answer in time
+
+    public WeatherApiException(String message) {
+        this(message, 0);
+    }
+
+    public WeatherApiException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+        this.noResponse = false;
+    }
+
+    public WeatherApiException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public WeatherApiException(String message, Throwable cause, boolean noResponse) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.noResponse = noResponse;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // Rate limiting, server-side failures and an unreachable upstream clear up on their own;
+    // callers should back off and retry
+    public boolean isTransient() {
+        return noResponse || statusCode == 429 || statusCode >= 500;
+    }
+
+    // User-facing message for any failure, including ones wrapped by a CompletableFuture
+    public static String messageOf(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof WeatherApiException) {
+            return cause.getMessage();
+        }
+        return "Error: Network issue or invalid request";
+    }
+
+    // Whether a failure, possibly wrapped by a CompletableFuture, is likely to clear up by itself
+    public static boolean isTransient(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof WeatherApiException failure && failure.isTransient();
+    }
+}
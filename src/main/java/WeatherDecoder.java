@@ -0,0 +1,306 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+// Single-pass streaming decoder for OpenWeather payloads. Only the fields the app
+// displays are read; everything else is skipped without building a JSON tree.
+public final class WeatherDecoder {
+
+    private static final LatencyHistogram DECODE_CURRENT = Metrics.histogram("decode.current");
+    private static final LatencyHistogram DECODE_GROUP = Metrics.histogram("decode.group");
+    private static final LatencyHistogram DECODE_FORECAST = Metrics.histogram("decode.forecast");
+    // "cnt" only presizes the columns, up to the 96 steps of an hourly forecast; it comes from the
+    // payload, so a larger or negative value must not decide an allocation. Longer lists still grow.
+    private static final int MAX_PRESIZED_STEPS = 96;
+
+    private static final String WARM_UP_CURRENT = "{\"id\":0,\"name\":\"\",\"weather\":[{\"id\":800,"
+            + "\"description\":\"clear sky\"}],\"main\":{\"temp\":0.0,\"humidity\":0},\"wind\":{\"speed\":0.0},"
+            + "\"sys\":{\"sunrise\":0,\"sunset\":0},\"timezone\":0}";
+    private static final String WARM_UP_FORECAST = "{\"cnt\":1,\"list\":[{\"dt\":0,\"main\":{\"temp\":0.0,"
+            + "\"humidity\":0},\"weather\":[{\"id\":800,\"description\":\"clear sky\"}],\"wind\":{\"speed\":0.0}}],"
+            + "\"city\":{\"timezone\":0,\"sunrise\":0,\"sunset\":0}}";
+
+    private WeatherDecoder() {
+    }
+
+    public static CurrentConditions decodeCurrent(byte[] json) {
+        long start = System.nanoTime();
+        try {
+            return decodeCurrent(utf8Reader(json));
+        } finally {
+            DECODE_CURRENT.recordSince(start);
+        }
+    }
+
+    public static CurrentConditions decodeCurrent(Reader in) {
+        try (JsonReader reader = new JsonReader(in)) {
+            return readCurrent(reader);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new WeatherApiException("Error: Unexpected response from weather service", e);
+        }
+    }
+
+    // A /group response is a "list" of objects shaped exactly like /weather responses
+    public static List<CurrentConditions> decodeGroup(byte[] json) {
+        long start = System.nanoTime();
+        List<CurrentConditions> results = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(utf8Reader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("list")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    results.add(readCurrent(reader));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new WeatherApiException("Error: Unexpected response from weather service", e);
+        } finally {
+            DECODE_GROUP.recordSince(start);
+        }
+        return results;
+    }
+
+    private static CurrentConditions readCurrent(JsonReader reader) throws IOException {
+        long cityId = 0;
+        String name = "";
+        double temperature = 0;
+        int humidity = 0;
+        double windSpeed = 0;
+        Condition condition = Condition.UNKNOWN;
+        long sunrise = 0;
+        long sunset = 0;
+        int timezoneOffset = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> cityId = reader.nextLong();
+                case "name" -> name = reader.nextString();
+                case "weather" -> condition = readFirstCondition(reader);
+                case "timezone" -> timezoneOffset = reader.nextInt();
+                case "sys" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "sunrise" -> sunrise = reader.nextLong();
+                            case "sunset" -> sunset = reader.nextLong();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "main" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "temp" -> temperature = reader.nextDouble();
+                            case "humidity" -> humidity = reader.nextInt();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "wind" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("speed")) {
+                            windSpeed = reader.nextDouble();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new CurrentConditions(cityId, name, temperature, humidity, windSpeed, condition.id(),
+                condition.description(), sunrise, sunset, timezoneOffset);
+    }
+
+    public static ForecastSeries decodeForecast(byte[] json) {
+        long start = System.nanoTime();
+        try {
+            return decodeForecast(utf8Reader(json));
+        } finally {
+            DECODE_FORECAST.recordSince(start);
+        }
+    }
+
+    // Reads every step of "list" straight into primitive columns
+    public static ForecastSeries decodeForecast(Reader in) {
+        ForecastColumns columns = new ForecastColumns();
+        int timezoneOffset = 0;
+        long sunrise = 0;
+        long sunset = 0;
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "cnt" -> columns.ensureCapacity(Math.min(Math.max(reader.nextInt(), 0), MAX_PRESIZED_STEPS));
+                    case "list" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            readForecastStep(reader, columns);
+                        }
+                        reader.endArray();
+                    }
+                    case "city" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "timezone" -> timezoneOffset = reader.nextInt();
+                                case "sunrise" -> sunrise = reader.nextLong();
+                                case "sunset" -> sunset = reader.nextLong();
+                                default -> reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new WeatherApiException("Error: Unexpected response from weather service", e);
+        }
+        return columns.build(timezoneOffset, sunrise, sunset);
+    }
+
+    // Decodes a minimal payload of each kind so the JSON reader and decoder classes are loaded
+    // and initialized before the first real response; nothing is recorded in the metrics
+    public static void warmUp() {
+        decodeCurrent(new StringReader(WARM_UP_CURRENT));
+        decodeForecast(new StringReader(WARM_UP_FORECAST));
+    }
+
+    private static void readForecastStep(JsonReader reader, ForecastColumns columns) throws IOException {
+        long epochSecond = 0;
+        double temperature = 0;
+        int humidity = 0;
+        double windSpeed = 0;
+        Condition condition = Condition.UNKNOWN;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "dt" -> epochSecond = reader.nextLong();
+                case "weather" -> condition = readFirstCondition(reader);
+                case "main" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "temp" -> temperature = reader.nextDouble();
+                            case "humidity" -> humidity = reader.nextInt();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "wind" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("speed")) {
+                            windSpeed = reader.nextDouble();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        columns.add(epochSecond, temperature, humidity, windSpeed, condition);
+    }
+
+    // Growable primitive columns, trimmed to size when the series is built
+    private static final class ForecastColumns {
+        private long[] epochSeconds = new long[40]; // The 5-day forecast normally has 40 steps
+        private float[] temperatures = new float[40];
+        private byte[] humidities = new byte[40];
+        private float[] windSpeeds = new float[40];
+        private short[] conditionIds = new short[40];
+        private String[] descriptions = new String[40];
+        private final Map<String, String> distinctDescriptions = new HashMap<>();
+        private int size;
+
+        void ensureCapacity(int capacity) {
+            if (capacity > epochSeconds.length) {
+                epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+                temperatures = Arrays.copyOf(temperatures, capacity);
+                humidities = Arrays.copyOf(humidities, capacity);
+                windSpeeds = Arrays.copyOf(windSpeeds, capacity);
+                conditionIds = Arrays.copyOf(conditionIds, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+        }
+
+        void add(long epochSecond, double temperature, int humidity, double windSpeed, Condition condition) {
+            ensureCapacity(size == epochSeconds.length ? size * 2 : size);
+            epochSeconds[size] = epochSecond;
+            temperatures[size] = (float) temperature;
+            humidities[size] = (byte) humidity;
+            windSpeeds[size] = (float) windSpeed;
+            conditionIds[size] = (short) condition.id();
+            descriptions[size] = distinctDescriptions.computeIfAbsent(condition.description(), d -> d);
+            size++;
+        }
+
+        ForecastSeries build(int timezoneOffsetSeconds, long sunrise, long sunset) {
+            return new ForecastSeries(Arrays.copyOf(epochSeconds, size), Arrays.copyOf(temperatures, size),
+                    Arrays.copyOf(humidities, size), Arrays.copyOf(windSpeeds, size), Arrays.copyOf(conditionIds, size),
+                    Arrays.copyOf(descriptions, size), timezoneOffsetSeconds, sunrise, sunset);
+        }
+    }
+
+    private static Reader utf8Reader(byte[] json) {
+        return new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8);
+    }
+
+    // The primary weather condition: OpenWeather's numeric code and its description
+    private record Condition(int id, String description) {
+        static final Condition UNKNOWN = new Condition(0, "");
+    }
+
+    // "weather" is an array whose first element describes the primary condition
+    private static Condition readFirstCondition(JsonReader reader) throws IOException {
+        int id = 0;
+        String description = "";
+        reader.beginArray();
+        if (reader.hasNext() && reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextInt();
+                    case "description" -> description = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return new Condition(id, description);
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Headless mode: serves /weather and /forecast over HTTP from the client's shared cache,
+// so any number of local consumers cost upstream no more than the app itself does.
+// Each exchange runs on its own virtual thread; concurrent requests for the same location
+// share one upstream call, and answers are small normalized JSON in metric units:
+//
+//   GET /weather?q=London      {"id":2643743,"name":"London","temperature":14.6,...}
+//   GET /forecast?id=2643743   {"timezone":3600,"steps":[{"time":1729274400,...},...]}
+public class WeatherGateway {
+
+    static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 4096; // Pending connections the OS may queue during a burst
+    private static final int MAX_RENDERED = 1024;
+    private static final long NOT_FOUND_TTL_MILLIS = 5 * 60 * 1000L; // Unknown names are not re-asked upstream
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Normalized JSON per cache key, reused for as long as the upstream body it came from is current.
+    // Not-found answers are kept here too, for a while, so a mistyped name cannot drain the quota.
+    private final Map<String, Rendered> rendered = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Rendered> eldest) {
+                    return size() > MAX_RENDERED;
+                }
+            });
+
+    public WeatherGateway(String host, int port) throws IOException {
+        // The JDK server leaves Nagle's algorithm on, which holds the body of a response back until the
+        // client's delayed ACK of the headers, ~40 ms on Linux; unless set otherwise, send it right away
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(host, port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/weather", exchange -> serve(exchange, "weather",
+                WeatherAPIClient::getWeatherDataAsync,
+                body -> writeCurrent(WeatherDecoder.decodeCurrent(body))));
+        server.createContext("/forecast", exchange -> serve(exchange, "forecast",
+                WeatherAPIClient::getForecastDataAsync,
+                body -> writeForecast(WeatherDecoder.decodeForecast(body))));
+    }
+
+    public void start() {
+        server.start();
+        InetSocketAddress address = server.getAddress();
+        System.out.println("Weather gateway listening on http://" + address.getHostString() + ":" + address.getPort()
+                + " (upstream " + WeatherAPIClient.getBaseUrl() + ")");
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void serve(HttpExchange exchange, String endpoint,
+            Function<String, CompletableFuture<byte[]>> fetch,
+            Function<byte[], String> render) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            String location = location(exchange.getRequestURI().getRawQuery());
+            if (location == null) {
+                respond(exchange, 400, error("Pass a city name as q=... or a city ID as id=..."));
+                return;
+            }
+
+            String key = WeatherAPIClient.cacheKey(endpoint, location);
+            Rendered cached = rendered.get(key);
+            if (cached != null && cached.source() == null && System.currentTimeMillis() < cached.expiresAt()) {
+                respond(exchange, 404, cached.json());
+                return;
+            }
+            try {
+                byte[] body = fetch.apply(location).join();
+                if (cached == null || cached.source() != body) {
+                    cached = new Rendered(body, render.apply(body).getBytes(StandardCharsets.UTF_8), 0);
+                    rendered.put(key, cached);
+                }
+                exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+                respond(exchange, 200, cached.json());
+            } catch (CompletionException | WeatherApiException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                byte[] json = error(WeatherApiException.messageOf(cause).replaceFirst("^Error: ", ""));
+                if (cause instanceof WeatherApiException failure && failure.getStatusCode() == 404) {
+                    rendered.put(key, new Rendered(null, json, System.currentTimeMillis() + NOT_FOUND_TTL_MILLIS));
+                    respond(exchange, 404, json);
+                } else {
+                    respond(exchange, 502, json);
+                }
+            }
+        } finally {
+            Metrics.histogram("gateway." + endpoint).recordSince(start);
+        }
+    }
+
+    // Upstream's own parameter names: q for a name, id for a city ID
+    private static String location(String rawQuery) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String name = pair.substring(0, eq);
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (name.equals("q") || (name.equals("id") && WeatherAPIClient.isCityId(value))) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static byte[] error(String message) {
+        return writeJson(writer -> writer.name("error").value(message)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String writeCurrent(CurrentConditions current) {
+        return writeJson(writer -> {
+            writer.name("id").value(current.cityId());
+            writer.name("name").value(current.name());
+            writer.name("temperature").value(round(current.temperature()));
+            writer.name("humidity").value(current.humidity());
+            writer.name("windSpeed").value(round(current.windSpeed()));
+            writer.name("description").value(current.description());
+        });
+    }
+
+    private static String writeForecast(ForecastSeries forecast) {
+        return writeJson(writer -> {
+            writer.name("timezone").value(forecast.timezoneOffsetSeconds());
+            writer.name("steps").beginArray();
+            for (int i = 0; i < forecast.size(); i++) {
+                writer.beginObject();
+                writer.name("time").value(forecast.epochSecond(i));
+                writer.name("temperature").value(round(forecast.temperature(i)));
+                writer.name("humidity").value(forecast.humidity(i));
+                writer.name("windSpeed").value(round(forecast.windSpeed(i)));
+                writer.name("conditionId").value(forecast.conditionId(i));
+                writer.name("description").value(forecast.description(i));
+                writer.endObject();
+            }
+            writer.endArray();
+        });
+    }
+
+    // Entry point without JavaFX, so the gateway runs on a plain class path: WeatherGateway [--port=8080].
+    // The only place that exits: 2 for a bad argument, 1 if the server cannot start.
+    public static void main(String[] args) {
+        try {
+            int port = DEFAULT_PORT;
+            for (String arg : args) {
+                if (arg.startsWith("--port=")) {
+                    port = parsePort(arg.substring(7));
+                }
+            }
+            run(port);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(2);
+        } catch (UncheckedIOException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int parsePort(String text) {
+        try {
+            int port = Integer.parseInt(text);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid gateway port " + text);
+    }
+
+    // Starts a gateway that serves until the JVM shuts down
+    static void run(int port) {
+        String host = System.getProperty("weather.gateway.host", "127.0.0.1");
+        try {
+            WeatherGateway gateway = new WeatherGateway(host, port);
+            Metrics.registerMBean();
+            Runtime.getRuntime().addShutdownHook(new Thread(gateway::stop, "gateway-shutdown"));
+            gateway.start(); // The server's dispatcher thread keeps the JVM running
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gateway on " + host + ":" + port
+                    + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    // Two decimals is finer than upstream reports; it also hides float-to-double noise such as 2.700000047
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String writeJson(JsonBody body) {
+        StringWriter out = new StringWriter(256);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginObject();
+            body.write(writer);
+            writer.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // A StringWriter never fails
+        }
+        return out.toString();
+    }
+
+    private interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    // source is the upstream body json was rendered from, or null for a remembered 404 valid until expiresAt
+    private record Rendered(byte[] source, byte[] json, long expiresAt) {
+    }
+}
@@ -1,16 +1,20 @@
 import java.net.URL;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonArray;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -18,8 +22,10 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -30,28 +36,61 @@ import javafx.scene.layout.BackgroundSize;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import javafx.util.Callback;
+import javafx.util.Duration;
 
 public class WeatherInformationApp extends Application {
 
+    private static final int MAIN_ICON_SIZE = 100;
+    private static final int FORECAST_ICON_SIZE = 30;
+    private static final int HISTORY_ICON_SIZE = 20;
+    private static final int HISTORY_CAPACITY = 5000; // Oldest searches are overwritten beyond this
+    private static final DateTimeFormatter HISTORY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Time to apply one search's results to the scene, i.e. how long the FX thread is busy with it
+    private static final LatencyHistogram RENDER_RESULTS = Metrics.histogram("render.results");
+    // Milliseconds from JVM start until the first frame is laid out and until the saved session is shown
+    private static final LatencyHistogram FIRST_FRAME = Metrics.histogram("startup.firstFrame");
+    private static final LatencyHistogram SESSION_RESTORED = Metrics.histogram("startup.sessionRestored");
+
     private Label temperatureLabel;
     private Label humidityLabel;
     private Label windSpeedLabel;
     private Label conditionLabel;
     private ImageView weatherIcon;
-    private VBox timeColumn;
-    private VBox tempColumn;
-    private VBox iconColumn;
+    private ForecastChart forecastChart;
+    private HBox dailySummaryRow;
     private BorderPane mainLayout;
-    private ObservableList<HistoryEntry> historyList; // For tracking search history
+    private HistoryBuffer<HistoryEntry> historyList; // For tracking search history
     private ListView<HistoryEntry> historyListView; // ListView to display search history
-
+    private ProgressIndicator loadingIndicator; // Shown while a search is in flight
+    private Label statusLabel; // Non-modal notice while the weather service is unreachable
+    private CompletableFuture<Void> pendingFetch; // Latest search, cancelled when a newer one starts
+    private long fetchGeneration; // Incremented per search so stale results are dropped
+    private DisplayUnit displayUnit = DisplayUnit.CELSIUS; // Unit all values are rendered in
+    private CurrentConditions lastConditions; // Last rendered data, kept so a unit switch can re-render
+    private ForecastSeries lastForecast;
+    private final ImageRegistry images = new ImageRegistry(); // Icons and backgrounds, decoded once per size
+    private String backgroundFileName; // Background currently shown, re-decoded when the window is resized
+    private final PauseTransition resizeDebounce = new PauseTransition(Duration.millis(250));
+    private DashboardWindow dashboardWindow; // Multi-city view, created on first use
+    private LocalStore store; // History and responses persisted across sessions
+    private final FxWatchdog watchdog = new FxWatchdog(Integer.getInteger("weather.fx.stallMillis", 250));
+    private RefreshScheduler refresher; // Keeps the shown location current in the background
+    private String watchedLocation; // Location the refresher is watching, as sent upstream
+    private long startedAt; // When the JVM started, in epoch milliseconds
+
+    // Startup runs in stages so the window is up before anything it doesn't need yet: the input
+    // bar and placeholders are shown first, the full sections are built right after the first
+    // frame, and the decoder, icons and saved session warm up in the background after that
     @Override
     public void start(Stage primaryStage) {
+        startedAt = ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli)
+                .orElse(System.currentTimeMillis());
+
         // Main Layout
         mainLayout = new BorderPane();
 
@@ -59,69 +98,81 @@ public class WeatherInformationApp extends Application {
         Label locationLabel = new Label("Enter Location:");
         TextField locationInput = new TextField();
         Button getWeatherButton = new Button("Get Weather");
+        getWeatherButton.setDisable(true); // Until the sections it fills in exist
 
         // Unit Selection ComboBox
-        ComboBox<String> unitSelector = new ComboBox<>();
-        unitSelector.getItems().addAll("Celsius", "Fahrenheit");
-        unitSelector.setValue("Celsius"); // Default selection
+        ComboBox<DisplayUnit> unitSelector = new ComboBox<>();
+        unitSelector.getItems().addAll(DisplayUnit.values());
+        unitSelector.setValue(displayUnit); // Default selection
+        unitSelector.setDisable(true);
+
+        Button dashboardButton = new Button("Dashboard");
+        dashboardButton.setOnAction(e -> {
+            if (dashboardWindow == null) {
+                dashboardWindow = new DashboardWindow(() -> displayUnit);
+            }
+            dashboardWindow.show();
+        });
 
-        // Initialize the history list and ListView
-        historyList = FXCollections.observableArrayList();
-        historyListView = new ListView<>(historyList);
-        historyListView.setPrefHeight(150); // Adjust the height of the history section
+        loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setPrefSize(24, 24);
+        loadingIndicator.setVisible(false);
 
-        // Custom cell factory to display temp and icon next to history
-        historyListView.setCellFactory(new Callback<ListView<HistoryEntry>, ListCell<HistoryEntry>>() {
-            @Override
-            public ListCell<HistoryEntry> call(ListView<HistoryEntry> param) {
-                return new ListCell<HistoryEntry>() {
-                    @Override
-                    protected void updateItem(HistoryEntry item, boolean empty) {
-                        super.updateItem(item, empty);
-                        if (empty || item == null) {
-                            setText(null);
-                            setGraphic(null);
-                        } else {
-                            HBox cellLayout = new HBox(10);
-                            cellLayout.setAlignment(Pos.CENTER);
-
-                            Label historyLabel = new Label(item.getDisplayText());
-                            historyLabel.setTextFill(Color.DARKGRAY);
-
-                            Label tempLabel = new Label(String.format("%.2f%s", item.getTemperature(),
-                                    item.getUnit().equals("Celsius") ? "°C" : "°F"));
-                            tempLabel.setTextFill(Color.DARKGRAY);
-
-                            ImageView iconView = new ImageView(
-                                    getClass().getResource("/images/" + item.getIcon()).toExternalForm());
-                            iconView.setFitHeight(20);
-                            iconView.setFitWidth(20);
-
-                            cellLayout.getChildren().addAll(historyLabel, tempLabel, iconView);
-                            setGraphic(cellLayout);
-                        }
-                    }
-                };
+        HBox inputSection = new HBox(10, locationLabel, locationInput, unitSelector, getWeatherButton,
+                dashboardButton, loadingIndicator);
+        inputSection.setPadding(new Insets(10, 10, 10, 10));
+        inputSection.setAlignment(Pos.CENTER); // Center align the input section
+
+        // Outages are reported here instead of in a dialog, so saved data stays usable meanwhile
+        statusLabel = new Label();
+        statusLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #ffd54f; -fx-background-color: rgba(0, 0, 0, 0.6);"
+                + " -fx-background-radius: 6; -fx-padding: 4 10 4 10;");
+        statusLabel.visibleProperty().bind(statusLabel.textProperty().isNotEmpty());
+        statusLabel.managedProperty().bind(statusLabel.visibleProperty());
+        VBox topSection = new VBox(4, inputSection, statusLabel);
+        topSection.setAlignment(Pos.CENTER);
+        mainLayout.setTop(topSection);
+
+        // Empty panels where the sections will go, so the first frame already has the final layout
+        VBox placeholders = new VBox(20, placeholder(290), placeholder(230), placeholder(220));
+        placeholders.setAlignment(Pos.CENTER);
+        placeholders.setPadding(new Insets(20));
+        mainLayout.setCenter(placeholders);
+
+        // Set Scene and Show Stage with adjusted dimensions
+        // The metrics overlay floats above everything and is toggled with F12
+        MetricsOverlay metricsOverlay = new MetricsOverlay();
+        Scene scene = new Scene(new StackPane(mainLayout, metricsOverlay), 600, 600); // Reduced height
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F12) {
+                metricsOverlay.toggle();
+                e.consume();
             }
         });
+        primaryStage.setScene(scene);
+        primaryStage.setTitle("Weather Information App");
 
-        getWeatherButton.setOnAction(e -> {
-            String location = locationInput.getText();
-            String selectedUnit = unitSelector.getValue().equals("Celsius") ? "metric" : "imperial";
-            String weatherData = WeatherAPIClient.getWeatherData(location, selectedUnit);
-            if (weatherData.startsWith("Error")) {
-                showError(weatherData);
-            } else {
-                updateWeatherInfo(weatherData, unitSelector.getValue());
-                updateBackgroundBasedOnTime(); // Update background based on the time of day
-                addToHistory(location, weatherData, unitSelector.getValue()); // Add the search to the history
+        // The rest waits until the first frame has been laid out
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                recordStartupStage(FIRST_FRAME, "first frame");
+                Platform.runLater(() -> buildSections(primaryStage, locationInput, unitSelector, getWeatherButton));
             }
         });
+        primaryStage.show();
+    }
 
-        HBox inputSection = new HBox(10, locationLabel, locationInput, unitSelector, getWeatherButton);
-        inputSection.setPadding(new Insets(10, 10, 10, 10));
-        inputSection.setAlignment(Pos.CENTER); // Center align the input section
-        mainLayout.setTop(inputSection);
+    // Second stage, on the FX thread: the weather, forecast and history sections and everything that updates them
+    private void buildSections(Stage primaryStage, TextField locationInput, ComboBox<DisplayUnit> unitSelector,
+            Button getWeatherButton) {
+        // Initialize the history list and ListView
+        historyList = new HistoryBuffer<>(HISTORY_CAPACITY);
+        historyListView = new ListView<>(historyList);
+
+        // Custom cell factory to display temp and icon next to history
+        historyListView.setCellFactory(list -> new HistoryCell());
 
         // Weather Information Display
         temperatureLabel = new Label("Temperature: N/A");
@@ -130,6 +181,8 @@ public class WeatherInformationApp extends Application {
         conditionLabel = new Label("Condition: N/A");
 
         weatherIcon = new ImageView(); // Initialize weatherIcon
+        weatherIcon.setFitHeight(MAIN_ICON_SIZE);
+        weatherIcon.setFitWidth(MAIN_ICON_SIZE);
 
         // Add text color and adjust visibility
         temperatureLabel.setTextFill(Color.WHITE);
@@ -148,38 +201,27 @@ public class WeatherInformationApp extends Application {
         weatherInfoSection.setAlignment(Pos.CENTER); // Center align the weather info
         weatherInfoSection.setMaxWidth(300); // Limit the width to avoid stretching
 
-        StackPane weatherInfoContainer = new StackPane(weatherInfoSection);
-        weatherInfoContainer.setBackground(
-                new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.6), new CornerRadii(10), Insets.EMPTY)));
-
-        // Hourly Forecast Display Section with columns
-        timeColumn = new VBox(10);
-        tempColumn = new VBox(10);
-        iconColumn = new VBox(10);
+        StackPane weatherInfoContainer = sectionContainer(weatherInfoSection, Region.USE_COMPUTED_SIZE,
+                Region.USE_COMPUTED_SIZE);
 
-        timeColumn.setAlignment(Pos.CENTER_LEFT);
-        tempColumn.setAlignment(Pos.CENTER);
-        iconColumn.setAlignment(Pos.CENTER_RIGHT);
+        // Forecast section: the full 5-day horizon as a scrollable chart, with a row of daily summaries below
+        forecastChart = new ForecastChart(
+                (series, i) -> images.icon(series.icon(i), FORECAST_ICON_SIZE));
+        forecastChart.setPrefSize(300, 150);
 
-        timeColumn.setStyle("-fx-font-size: 14px; -fx-text-fill: lightgray;");
-        tempColumn.setStyle("-fx-font-size: 14px; -fx-text-fill: lightgray;");
+        dailySummaryRow = new HBox(12);
+        dailySummaryRow.setAlignment(Pos.CENTER);
 
-        HBox forecastSection = new HBox(20, timeColumn, tempColumn, iconColumn);
+        VBox forecastSection = new VBox(8, forecastChart, dailySummaryRow);
         forecastSection.setPadding(new Insets(10, 10, 10, 10));
         forecastSection.setAlignment(Pos.CENTER);
 
-        StackPane forecastContainer = new StackPane(forecastSection);
-        forecastContainer.setBackground(
-                new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.6), new CornerRadii(10), Insets.EMPTY)));
-        forecastContainer.setMaxHeight(150); // Adjust height to fit 3 items
-        forecastContainer.setMaxWidth(300); // Adjust width to match weather info section
+        // Chart plus one row of daily summaries, as wide as the weather info section
+        StackPane forecastContainer = sectionContainer(forecastSection, 300, 230);
 
         // Style the history section similarly and center its contents
-        StackPane historyContainer = new StackPane(historyListView);
-        historyContainer.setBackground(
-                new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.6), new CornerRadii(10), Insets.EMPTY)));
+        StackPane historyContainer = sectionContainer(historyListView, 450, Region.USE_COMPUTED_SIZE);
         historyContainer.setPadding(new Insets(10, 10, 10, 10));
-        historyContainer.setMaxWidth(450); // Limit the width
         historyContainer.setPrefWidth(450); // Set preferred width
         historyListView.setStyle("-fx-background-color: transparent; -fx-text-fill: lightgray;");
         historyListView.setPrefHeight(200); // Adjust height to only fit content
@@ -195,143 +237,317 @@ public class WeatherInformationApp extends Application {
         // Set padding to avoid it stretching to fill the window
         stackedSections.setPadding(new Insets(20));
 
-        // Wrap in another StackPane to center it properly
-        StackPane centeredStackPane = new StackPane(stackedSections);
-        centeredStackPane.setAlignment(Pos.CENTER);
+        mainLayout.setCenter(stackedSections); // Align stacked sections to the center
 
-        // Use centeredStackPane instead of stackedSections directly
-        mainLayout.setCenter(centeredStackPane);
+        // Suggestions come from a bundled city list; a picked suggestion is fetched by its city ID
+        LocationAutocomplete autocomplete = new LocationAutocomplete(locationInput);
+        getWeatherButton.setOnAction(e -> fetchWeather(autocomplete.resolve(), locationInput.getText(),
+                true, false));
+        getWeatherButton.setDisable(false);
+        unitSelector.setOnAction(e -> changeUnit(unitSelector.getValue()));
+        unitSelector.setDisable(false);
+
+        watchdog.start();
+
+        // Re-decode the background at the new size once resizing settles
+        Scene scene = primaryStage.getScene();
+        resizeDebounce.setOnFinished(e -> {
+            if (backgroundFileName != null) {
+                setBackground(backgroundFileName);
+            }
+        });
+        scene.widthProperty().addListener((obs, oldWidth, width) -> resizeDebounce.playFromStart());
+        scene.heightProperty().addListener((obs, oldHeight, height) -> resizeDebounce.playFromStart());
 
-        mainLayout.setCenter(stackedSections); // Align stacked sections to the center
+        // Background refreshes only push values that changed, and stop while the window is minimized
+        refresher = new RefreshScheduler(new RefreshScheduler.Listener() {
+            @Override
+            public void onConditionsChanged(String location, CurrentConditions conditions) {
+                Platform.runLater(() -> {
+                    if (location.equals(watchedLocation)) {
+                        lastConditions = conditions;
+                        updateWeatherInfo(conditions);
+                        updateBackground(conditions);
+                    }
+                });
+            }
 
-        // Set Scene and Show Stage with adjusted dimensions
-        Scene scene = new Scene(mainLayout, 600, 600); // Reduced height
-        primaryStage.setScene(scene);
-        primaryStage.setTitle("Weather Information App");
-        primaryStage.show();
+            @Override
+            public void onForecastChanged(String location, ForecastSeries forecast) {
+                Platform.runLater(() -> {
+                    if (location.equals(watchedLocation)) {
+                        lastForecast = forecast;
+                        forecastChart.updateSeries(forecast);
+                        updateDailySummaries(forecast);
+                    }
+                });
+            }
+        });
+        primaryStage.iconifiedProperty().addListener((obs, wasIconified, iconified) -> refresher.setPaused(iconified));
+
+        store = new LocalStore(LocalStore.defaultLocation(), HISTORY_CAPACITY);
+        Thread warmUp = new Thread(() -> warmUp(locationInput), "startup-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    // Third stage, off the FX thread: loads the HTTP client, JSON decoder, icons and the previous session
+    private void warmUp(TextField locationInput) {
+        WeatherAPIClient.setUpstreamListener(state -> Platform.runLater(() -> updateUpstreamStatus(null)));
+        WeatherAPIClient.setResponseStore(store);
+
+        // Restore the previous session from disk so it shows before any network call completes
+        store.load(query -> List.of(WeatherAPIClient.cacheKey("weather", query),
+                WeatherAPIClient.cacheKey("forecast", query)))
+                .thenAccept(snapshot -> Platform.runLater(() -> {
+                    restoreSession(snapshot, locationInput);
+                    recordStartupStage(SESSION_RESTORED, "session restored");
+                }))
+                .exceptionally(ex -> {
+                    System.out.println("Error restoring previous session: " + ex.getMessage());
+                    return null;
+                });
+
+        WeatherDecoder.warmUp();
+        for (String icon : ConditionClassifier.iconNames()) {
+            images.icon(icon, MAIN_ICON_SIZE);
+            images.icon(icon, FORECAST_ICON_SIZE);
+            images.icon(icon, HISTORY_ICON_SIZE);
+        }
+        Metrics.registerMBean();
     }
 
-    private void updateWeatherInfo(String jsonData, String unit) {
-        JsonObject jsonObject = JsonParser.parseString(jsonData).getAsJsonObject();
+    // Time since the JVM started, printed and kept with the other metrics
+    private void recordStartupStage(LatencyHistogram histogram, String stage) {
+        long millis = System.currentTimeMillis() - startedAt;
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        System.out.println("Startup: " + stage + " after " + millis + " ms");
+    }
 
-        // Extract weather information
-        JsonObject main = jsonObject.getAsJsonObject("main");
-        double temperature = main.get("temp").getAsDouble();
-        int humidity = main.get("humidity").getAsInt();
+    // Empty section-sized panel shown until the real sections are built
+    private static StackPane placeholder(double height) {
+        Region space = new Region();
+        space.setPrefSize(300, height);
+        return sectionContainer(space, 450, height);
+    }
 
-        JsonObject wind = jsonObject.getAsJsonObject("wind");
-        double windSpeed = wind.get("speed").getAsDouble();
+    // Dark rounded panel the sections sit on
+    private static StackPane sectionContainer(Node content, double maxWidth, double maxHeight) {
+        StackPane container = new StackPane(content);
+        container.setBackground(
+                new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.6), new CornerRadii(10), Insets.EMPTY)));
+        container.setMaxWidth(maxWidth);
+        container.setMaxHeight(maxHeight);
+        return container;
+    }
 
-        // Convert wind speed based on selected unit
-        String windSpeedText;
-        if (unit.equals("Celsius")) {
-            windSpeed *= 3.6; // Convert from m/s to km/h
-            windSpeedText = String.format("Wind Speed: %.2f km/h", windSpeed);
-        } else {
-            windSpeed *= 2.237; // Convert from m/s to mph
-            windSpeedText = String.format("Wind Speed: %.2f mph", windSpeed);
+    @Override
+    public void stop() {
+        watchdog.stop();
+        if (refresher != null) {
+            refresher.shutdown();
+        }
+        if (store != null) {
+            store.close(); // Flushes pending writes
         }
+    }
 
-        String weatherDescription = jsonObject.getAsJsonArray("weather")
-                .get(0).getAsJsonObject().get("description").getAsString();
+    private void restoreSession(LocalStore.Snapshot snapshot, TextField locationInput) {
+        WeatherAPIClient.seedCache(snapshot.responses());
+        // Saved searches are older than any made since launch, so they go in front, in one list change
+        historyList.addAllFirst(toHistoryEntries(snapshot.history()));
+        if (snapshot.moreHistory()) {
+            loadOlderHistory();
+        }
 
-        // Determine the correct unit symbol
-        String unitSymbol = unit.equals("Celsius") ? "°C" : "°F";
+        String query = snapshot.lastQuery();
+        if (query == null || lastConditions != null) {
+            return; // Nothing viewed before, or the user already searched in this session
+        }
+        LocalStore.StoredResponse weather = snapshot.responses().get(WeatherAPIClient.cacheKey("weather", query));
+        LocalStore.StoredResponse forecast = snapshot.responses().get(WeatherAPIClient.cacheKey("forecast", query));
+        try {
+            if (weather != null) {
+                lastConditions = WeatherDecoder.decodeCurrent(weather.body());
+                updateWeatherInfo(lastConditions);
+                updateBackground(lastConditions);
+            }
+            if (forecast != null) {
+                lastForecast = WeatherDecoder.decodeForecast(forecast.body());
+                updateForecastInfo(lastForecast);
+            }
+        } catch (WeatherApiException e) {
+            System.out.println("Ignoring unreadable stored response: " + e.getMessage());
+        }
+        locationInput.setText(snapshot.lastDisplayName());
+        fetchWeather(query, snapshot.lastDisplayName(), false, true); // Revalidate quietly in the background
+    }
 
-        // Update labels with the extracted information
-        temperatureLabel.setText("Temperature: " + String.format("%.2f", temperature) + " " + unitSymbol);
-        humidityLabel.setText("Humidity: " + humidity + " %");
-        windSpeedLabel.setText(windSpeedText);
-        conditionLabel.setText("Condition: " + weatherDescription);
+    // Reads the rest of the saved history a page at a time once the session is on screen
+    private void loadOlderHistory() {
+        store.loadOlderHistory()
+                .thenAccept(page -> Platform.runLater(() -> {
+                    if (historyList.addAllFirst(toHistoryEntries(page)) > 0) {
+                        loadOlderHistory();
+                    }
+                }))
+                .exceptionally(ex -> {
+                    System.out.println("Error reading older history: " + ex.getMessage());
+                    return null;
+                });
+    }
 
-        // Load and display appropriate weather icon
-        String iconFileName = getIconName(weatherDescription);
-        String imagePath = "/images/" + iconFileName;
-        try {
-            Image image = new Image(getClass().getResource(imagePath).toExternalForm());
-            weatherIcon.setImage(image);
-            weatherIcon.setFitHeight(100);
-            weatherIcon.setFitWidth(100);
-        } catch (NullPointerException e) {
-            System.out.println("Error: Image file not found at path " + imagePath);
-            e.printStackTrace();
+    private static List<HistoryEntry> toHistoryEntries(List<LocalStore.HistoryRecord> records) {
+        List<HistoryEntry> entries = new ArrayList<>(records.size());
+        for (LocalStore.HistoryRecord record : records) {
+            entries.add(new HistoryEntry(record.displayText(), record.temperature(), record.icon()));
         }
+        return entries;
+    }
 
-        // Fetch and display hourly forecast data
-        String forecastData = WeatherAPIClient.getForecastData(jsonObject.get("name").getAsString(), unit);
-        if (forecastData.startsWith("Error")) {
-            showError(forecastData);
-        } else {
-            updateForecastInfo(forecastData, unit);
+    // location is what gets sent upstream (a name or city ID), displayName what history shows.
+    // A quiet fetch reports failures in the status line instead of a dialog; the user did not ask for it.
+    private void fetchWeather(String location, String displayName, boolean recordHistory, boolean quiet) {
+        // Drop whatever the previous search was still waiting on
+        if (pendingFetch != null) {
+            pendingFetch.cancel(true);
         }
+        long generation = ++fetchGeneration;
+        loadingIndicator.setVisible(true);
+
+        // Current weather and forecast are requested and decoded in parallel, off the FX thread
+        CompletableFuture<CurrentConditions> currentFuture = WeatherAPIClient.getCurrentConditionsAsync(location);
+        CompletableFuture<ForecastSeries> forecastFuture = WeatherAPIClient.getForecastAsync(location);
+
+        // A failed forecast still lets the current conditions through, so wait for it to settle either way
+        CompletableFuture<Void> forecastSettled = forecastFuture.handle((forecast, ex) -> null);
+        CompletableFuture<Void> fetch = currentFuture.thenAcceptBoth(forecastSettled,
+                (current, ignored) -> Platform.runLater(() -> {
+                    if (generation != fetchGeneration) {
+                        return; // A newer search has started since this one
+                    }
+                    applyResults(location, displayName, current, forecastFuture, recordHistory, quiet);
+                }));
+        fetch.exceptionally(ex -> {
+            if (fetch.isCancelled()) {
+                // Superseded by a newer search; release our share of both requests
+                currentFuture.cancel(true);
+                forecastFuture.cancel(true);
+                return null;
+            }
+            Platform.runLater(() -> {
+                if (generation == fetchGeneration) {
+                    loadingIndicator.setVisible(false);
+                    if (quiet || WeatherApiException.isTransient(ex)) {
+                        updateUpstreamStatus(WeatherApiException.messageOf(ex));
+                    } else {
+                        showError(WeatherApiException.messageOf(ex));
+                    }
+                }
+            });
+            return null;
+        });
+        pendingFetch = fetch;
     }
 
-    private void updateForecastInfo(String forecastData, String unit) {
-        JsonObject jsonObject = JsonParser.parseString(forecastData).getAsJsonObject();
-        timeColumn.getChildren().clear();
-        tempColumn.getChildren().clear();
-        iconColumn.getChildren().clear();
-
-        int count = 0;
-        for (JsonElement element : jsonObject.getAsJsonArray("list")) {
-            if (count >= 3) // Limit to 3 entries
-                break;
-            JsonObject entry = element.getAsJsonObject();
-            String time = entry.get("dt_txt").getAsString().substring(11, 16); // Display only the time part
-            JsonObject main = entry.getAsJsonObject("main");
-            double temp = main.get("temp").getAsDouble();
-
-            // Convert temperature to Celsius or Fahrenheit based on the selected unit
-            if (unit.equals("Celsius")) {
-                temp -= 273.15; // Convert from Kelvin to Celsius
-            } else if (unit.equals("Fahrenheit")) {
-                temp = (temp - 273.15) * 9 / 5 + 32; // Convert from Kelvin to Fahrenheit
+    // Applies a completed search to the labels, forecast chart and history in one FX pass
+    private void applyResults(String location, String displayName, CurrentConditions current,
+            CompletableFuture<ForecastSeries> forecastFuture, boolean recordHistory, boolean quiet) {
+        long renderStart = System.nanoTime();
+        loadingIndicator.setVisible(false);
+        lastConditions = current;
+        updateWeatherInfo(current);
+        String forecastError = null;
+        String transientError = null;
+        try {
+            lastForecast = forecastFuture.join();
+            updateForecastInfo(lastForecast);
+        } catch (CompletionException e) {
+            lastForecast = null;
+            if (quiet || WeatherApiException.isTransient(e)) {
+                transientError = "Forecast unavailable. " + WeatherApiException.messageOf(e);
+            } else {
+                forecastError = WeatherApiException.messageOf(e);
             }
+        }
+        updateBackground(current); // Time of day at the location, not on this machine
+        if (recordHistory) {
+            addToHistory(displayName, current); // Add the search to the history
+        }
+        updateUpstreamStatus(transientError);
+        RENDER_RESULTS.recordSince(renderStart);
+        if (forecastError != null) {
+            showError(forecastError); // Modal, so kept out of the render timing
+        }
+        store.appendLastViewed(location, displayName);
 
-            String weather = entry.getAsJsonArray("weather").get(0).getAsJsonObject().get("description").getAsString();
+        if (watchedLocation != null) {
+            refresher.unwatch(watchedLocation);
+        }
+        watchedLocation = location;
+        refresher.watch(location, current, lastForecast);
+    }
 
-            // Convert time and temp strings to Labels
-            Label timeLabel = new Label(time);
-            Label tempLabel = new Label(String.format("%.2f%s", temp, unit.equals("Celsius") ? "°C" : "°F"));
+    // Re-renders everything already on screen in the new unit; no network involved
+    private void changeUnit(DisplayUnit unit) {
+        displayUnit = unit;
+        if (lastConditions != null) {
+            updateWeatherInfo(lastConditions);
+        }
+        forecastChart.setUnit(unit);
+        if (lastForecast != null) {
+            updateDailySummaries(lastForecast);
+        }
+        historyListView.refresh();
+    }
 
-            // Set style for labels
-            timeLabel.setStyle("-fx-text-fill: lightgray;");
-            tempLabel.setStyle("-fx-text-fill: lightgray;");
+    private void updateWeatherInfo(CurrentConditions current) {
+        String weatherDescription = current.description();
 
-            // Load the appropriate weather icon
-            ImageView weatherIcon = new ImageView(
-                    getClass().getResource("/images/" + getIconName(weather)).toExternalForm());
-            weatherIcon.setFitHeight(30);
-            weatherIcon.setFitWidth(30);
+        // Update labels, converting from the canonical metric values
+        temperatureLabel.setText("Temperature: " + String.format("%.2f", displayUnit.convertTemperature(
+                current.temperature())) + " " + displayUnit.getTemperatureSymbol());
+        humidityLabel.setText("Humidity: " + current.humidity() + " %");
+        windSpeedLabel.setText("Wind Speed: " + displayUnit.formatWindSpeed(current.windSpeed()));
+        conditionLabel.setText("Condition: " + weatherDescription);
 
-            // Add labels and icon to their respective columns
-            timeColumn.getChildren().add(timeLabel);
-            tempColumn.getChildren().add(tempLabel);
-            iconColumn.getChildren().add(weatherIcon);
+        // Load and display appropriate weather icon
+        weatherIcon.setImage(images.icon(current.icon(Instant.now()), MAIN_ICON_SIZE));
+    }
 
-            count++;
-        }
+    private void updateForecastInfo(ForecastSeries forecast) {
+        forecastChart.setSeries(forecast);
+        updateDailySummaries(forecast);
     }
 
-    private void updateBackgroundBasedOnTime() {
-        String backgroundFileName = "morning.jpg";
-        LocalTime time = LocalTime.now();
-        if (time.isAfter(LocalTime.of(6, 0)) && time.isBefore(LocalTime.of(18, 0))) {
-            backgroundFileName = "day.jpg";
-        } else if (time.isAfter(LocalTime.of(18, 0)) && time.isBefore(LocalTime.of(21, 0))) {
-            backgroundFileName = "evening.jpg";
-        } else {
-            backgroundFileName = "night.jpg";
+    // One small label per local day: weekday, then min / max and the average below
+    private void updateDailySummaries(ForecastSeries forecast) {
+        dailySummaryRow.getChildren().clear();
+        for (ForecastSeries.DailySummary day : forecast.dailySummaries()) {
+            Label dayLabel = new Label(day.date().getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault())
+                    + "\n" + formatWholeDegrees(day.min()) + " / " + formatWholeDegrees(day.max())
+                    + "\n~" + formatWholeDegrees(day.average()));
+            dayLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: lightgray; -fx-text-alignment: center;");
+            dailySummaryRow.getChildren().add(dayLabel);
         }
+    }
 
-        String imagePath = "images/" + backgroundFileName;
-        setBackground(imagePath);
+    private String formatWholeDegrees(double celsius) {
+        return String.format("%.0f%s", displayUnit.convertTemperature(celsius), displayUnit.getTemperatureSymbol());
     }
 
-    private void setBackground(String imagePath) {
-        try {
-            // Load the background image
-            Image backgroundImage = new Image(getClass().getClassLoader().getResource(imagePath).toExternalForm());
+    private void updateBackground(CurrentConditions conditions) {
+        setBackground(conditions.background(Instant.now()));
+    }
+
+    private void setBackground(String fileName) {
+        backgroundFileName = fileName;
+        Scene scene = mainLayout.getScene();
+        // The image is decoded off the FX thread at the window's size and swapped in when ready
+        images.background(fileName, scene.getWidth(), scene.getHeight(), backgroundImage -> {
+            if (!fileName.equals(backgroundFileName)) {
+                return; // Another background was requested while this one was decoding
+            }
 
             // Adjust the background size to fit the window
             BackgroundSize backgroundSize = new BackgroundSize(BackgroundSize.AUTO, BackgroundSize.AUTO, false, false,
@@ -347,50 +563,25 @@ public class WeatherInformationApp extends Application {
 
             // Set the background to the main layout
             mainLayout.setBackground(new Background(bgImage));
-        } catch (Exception e) {
-            System.out.println("Error loading background image from path: " + imagePath);
-            e.printStackTrace();
-        }
+        });
     }
 
-    private String getIconName(String weatherDescription) {
-        weatherDescription = weatherDescription.toLowerCase(); // Make it case-insensitive
-        if (weatherDescription.contains("clear") && !weatherDescription.contains("night")) {
-            return "sun.png";
-        } else if (weatherDescription.contains("clear") && weatherDescription.contains("night")) {
-            return "night_clear.png";
-        } else if (weatherDescription.contains("cloud") && weatherDescription.contains("few")) {
-            return "partly_cloudy.png";
-        } else if (weatherDescription.contains("cloud")) {
-            return "cloud.png";
-        } else if (weatherDescription.contains("overcast")) {
-            return "overcast.png";
-        } else if (weatherDescription.contains("rain") && weatherDescription.contains("heavy")) {
-            return "heavy_rain.png";
-        } else if (weatherDescription.contains("rain")) {
-            return "rain.png";
-        } else if (weatherDescription.contains("thunderstorm")) {
-            return "thunderstorm.png";
-        } else if (weatherDescription.contains("snow")) {
-            return "snow.png";
-        } else if (weatherDescription.contains("fog") || weatherDescription.contains("mist")) {
-            return "fog.png";
-        } else if (weatherDescription.contains("wind")) {
-            return "wind.png";
-        }
-        return "default.png"; // Fallback icon for unknown conditions
+    private void addToHistory(String location, CurrentConditions current) {
+        double temp = current.temperature();
+        String icon = current.icon(Instant.now());
+        String timestamp = LocalDateTime.now().format(HISTORY_TIMESTAMP);
+        HistoryEntry entry = new HistoryEntry("[" + timestamp + "] " + location, temp, icon);
+        historyList.add(entry); // Evicts the oldest when full
+        store.appendHistory(new LocalStore.HistoryRecord(entry.getDisplayText(), temp, icon));
     }
 
-    private void addToHistory(String location, String weatherData, String unit) {
-        JsonObject jsonObject = JsonParser.parseString(weatherData).getAsJsonObject();
-        double temp = jsonObject.getAsJsonObject("main").get("temp").getAsDouble();
-        String weatherDescription = jsonObject.getAsJsonArray("weather").get(0).getAsJsonObject().get("description")
-                .getAsString();
-        String icon = getIconName(weatherDescription);
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        historyList.add(new HistoryEntry("[" + timestamp + "] " + location, temp, unit, icon));
-        if (historyList.size() > 10) {
-            historyList.remove(0); // Remove the oldest entry if more than 10 items in history
+    // Shows the outage notice while the circuit breaker keeps requests off the weather service,
+    // otherwise the given transient error, or nothing once both are gone
+    private void updateUpstreamStatus(String transientError) {
+        if (WeatherAPIClient.getUpstreamState() != CircuitBreaker.State.CLOSED) {
+            statusLabel.setText("Weather service unreachable. Showing the last saved data.");
+        } else {
+            statusLabel.setText(transientError == null ? "" : transientError);
         }
     }
 
@@ -403,20 +594,58 @@ public class WeatherInformationApp extends Application {
     }
 
     public static void main(String[] args) {
+        // --gateway[=port] runs headless, serving the cache over HTTP instead of opening a window.
+        // Launching this class still needs JavaFX; WeatherGateway's own main does not.
+        for (String arg : args) {
+            if (arg.equals("--gateway") || arg.startsWith("--gateway=")) {
+                WeatherGateway.main(arg.equals("--gateway") ? new String[0]
+                        : new String[] { "--port=" + arg.substring(10) });
+                return;
+            }
+        }
         launch(args);
     }
 
-    // HistoryEntry class to store history details
-    public class HistoryEntry {
+    // History row whose graphic is built once and only has its text and image swapped on reuse
+    private class HistoryCell extends ListCell<HistoryEntry> {
+        private final Label historyLabel = new Label();
+        private final Label tempLabel = new Label();
+        private final ImageView iconView = new ImageView();
+        private final HBox cellLayout = new HBox(10, historyLabel, tempLabel, iconView);
+
+        HistoryCell() {
+            cellLayout.setAlignment(Pos.CENTER);
+            historyLabel.setTextFill(Color.DARKGRAY);
+            tempLabel.setTextFill(Color.DARKGRAY);
+        }
+
+        @Override
+        protected void updateItem(HistoryEntry item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText(null);
+                setGraphic(null);
+            } else {
+                historyLabel.setText(item.getDisplayText());
+                tempLabel.setText(item.getTemperatureText(displayUnit));
+                iconView.setImage(images.icon(item.getIcon(), HISTORY_ICON_SIZE));
+                setGraphic(cellLayout);
+            }
+        }
+    }
+
+    // HistoryEntry class to store history details; temperature is kept in °C and
+    // converted when the cell is rendered
+    public static class HistoryEntry {
         private String displayText;
         private double temperature;
-        private String unit;
         private String icon;
+        private DisplayUnit formattedUnit; // Unit temperatureText was last formatted in
+        private String temperatureText;
 
-        public HistoryEntry(String displayText, double temperature, String unit, String icon) {
+        public HistoryEntry(String displayText, double temperature, String icon) {
             this.displayText = displayText;
             this.temperature = temperature;
-            this.unit = unit;
             this.icon = icon;
         }
 
@@ -428,12 +657,17 @@ public class WeatherInformationApp extends Application {
             return temperature;
         }
 
-        public String getUnit() {
-            return unit;
-        }
-
         public String getIcon() {
             return icon;
         }
+
+        // Formatted once per unit rather than on every cell update
+        public String getTemperatureText(DisplayUnit unit) {
+            if (unit != formattedUnit) {
+                temperatureText = unit.formatTemperature(temperature);
+                formattedUnit = unit;
+            }
+            return temperatureText;
+        }
     }
 }
@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 100;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, OPEN_MILLIS, 4 * OPEN_MILLIS);
+    private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+
+    CircuitBreakerTest() {
+        breaker.setListener(transitions::add);
+    }
+
+    @Test
+    void opensAfterTheThresholdOfConsecutiveFailures() {
+        fail(2);
+        breaker.onSuccess(); // Resets the count
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions);
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire()); // The trial is still out
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN,
+                CircuitBreaker.State.CLOSED), transitions);
+    }
+
+    @Test
+    void failedTrialDoublesTheOpenPeriod() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertFalse(breaker.tryAcquire()); // Now open for twice as long
+        Thread.sleep(OPEN_MILLIS);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void lostTrialIsReplacedAfterTheOpenPeriod() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertTrue(breaker.tryAcquire()); // Never reports back
+
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void resetClosesWithACleanRecord() {
+        fail(3);
+        breaker.reset();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(2);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CityIndexTest {
+
+    private static final String CITIES = String.join("\n",
+            "# id\tname\tcountry",
+            "2643743\tLondon\tGB",
+            "6058560\tLondon\tCA",
+            "3448439\tSão Paulo\tBR",
+            "2657896\tZürich\tCH",
+            "2643741\tCity of London\tGB",
+            "",
+            "5128581\tNew York City\tUS",
+            "5106292\tNew Brunswick\tUS");
+
+    @Test
+    void prefixMatchesInNameOrder() {
+        CityIndex index = index(CITIES);
+
+        assertEquals(List.of("New Brunswick, US", "New York City, US"), labels(index.lookup("new", 10)));
+        assertEquals(List.of("London, CA", "London, GB"), labels(index.lookup("Lond", 10)));
+        assertEquals(2643743, index.lookup("london", 10).get(1).id());
+        assertEquals(1, index.lookup("new", 1).size());
+        assertTrue(index.lookup("york", 10).isEmpty()); // Prefix of the name only
+        assertTrue(index.lookup("  ", 10).isEmpty());
+    }
+
+    @Test
+    void accentsCaseAndSpacingAreIgnored() {
+        CityIndex index = index(CITIES);
+
+        assertEquals(List.of("São Paulo, BR"), labels(index.lookup("sao p", 10)));
+        assertEquals(List.of("São Paulo, BR"), labels(index.lookup("  SÃO   pau", 10)));
+        assertEquals(List.of("Zürich, CH"), labels(index.lookup("zur", 10)));
+        assertEquals("sao paulo", CityIndex.normalize("  São   PAULO "));
+    }
+
+    @Test
+    void badRowsAreSkipped() {
+        CityIndex index = index(String.join("\n",
+                "2643743\tLondon\tGB",
+                "not-a-number\tLondonderry\tGB",
+                "2634715\tLondon Colney", // No country
+                "\t\t",
+                "2643123\tManchester\tGB"));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("London, GB"), labels(index.lookup("london", 10)));
+        assertEquals(2643123, index.lookup("man", 10).get(0).id());
+    }
+
+    @Test
+    void emptyListHasNoSuggestions() {
+        CityIndex index = index("");
+
+        assertEquals(0, index.size());
+        assertTrue(index.lookup("a", 10).isEmpty());
+    }
+
+    private static CityIndex index(String tsv) {
+        return CityIndex.read(new BufferedReader(new StringReader(tsv)));
+    }
+
+    private static List<String> labels(List<CityIndex.City> cities) {
+        return cities.stream().map(CityIndex.City::label).toList();
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ConditionClassifierTest {
+
+    // London on 2024-10-18: sunrise 07:25, sunset 17:47 local time (UTC+1)
+    private static final long SUNRISE = 1729232700;
+    private static final long SUNSET = 1729270020;
+    private static final int TIMEZONE = 3600;
+
+    @Test
+    void groupsMapToTheirIcons() {
+        assertEquals("thunderstorm.png", ConditionClassifier.icon(211, true));
+        assertEquals("rain.png", ConditionClassifier.icon(301, true));
+        assertEquals("rain.png", ConditionClassifier.icon(500, true));
+        assertEquals("heavy_rain.png", ConditionClassifier.icon(503, true));
+        assertEquals("heavy_rain.png", ConditionClassifier.icon(531, true));
+        assertEquals("snow.png", ConditionClassifier.icon(511, true));
+        assertEquals("snow.png", ConditionClassifier.icon(622, true));
+        assertEquals("fog.png", ConditionClassifier.icon(741, true));
+        assertEquals("wind.png", ConditionClassifier.icon(781, true));
+        assertEquals("sun.png", ConditionClassifier.icon(800, true));
+        assertEquals("partly_cloudy.png", ConditionClassifier.icon(801, true));
+        assertEquals("cloud.png", ConditionClassifier.icon(803, true));
+        assertEquals("overcast.png", ConditionClassifier.icon(804, true));
+    }
+
+    @Test
+    void onlyClearAndCloudySkiesHaveNightIcons() {
+        assertEquals("Night_clear.png", ConditionClassifier.icon(800, false));
+        assertEquals("night_cloudy.png", ConditionClassifier.icon(801, false));
+        assertEquals("night_cloudy.png", ConditionClassifier.icon(803, false));
+        assertEquals("overcast.png", ConditionClassifier.icon(804, false));
+        assertEquals("rain.png", ConditionClassifier.icon(500, false));
+    }
+
+    @Test
+    void unknownCodesFallBack() {
+        assertEquals(ConditionClassifier.FALLBACK_ICON, ConditionClassifier.icon(0, true));
+        assertEquals(ConditionClassifier.FALLBACK_ICON, ConditionClassifier.icon(-1, false));
+        assertEquals(ConditionClassifier.FALLBACK_ICON, ConditionClassifier.icon(450, true));
+        assertEquals(ConditionClassifier.FALLBACK_ICON, ConditionClassifier.icon(900, true));
+    }
+
+    @Test
+    void everyIconIsBundled() {
+        // Resource names are case-sensitive inside a jar, so each name must match its file exactly
+        for (int code = 0; code < 900; code++) {
+            for (boolean daytime : new boolean[] {true, false}) {
+                String icon = ConditionClassifier.icon(code, daytime);
+                assertNotNull(ConditionClassifier.class.getResource("/images/" + icon), code + " " + icon);
+            }
+        }
+    }
+
+    @Test
+    void dayIsBetweenSunriseAndSunsetOnAnyDay() {
+        assertFalse(ConditionClassifier.isDaytime(SUNRISE - 60, SUNRISE, SUNSET, TIMEZONE));
+        assertTrue(ConditionClassifier.isDaytime(SUNRISE + 60, SUNRISE, SUNSET, TIMEZONE));
+        assertTrue(ConditionClassifier.isDaytime(SUNSET - 60, SUNRISE, SUNSET, TIMEZONE));
+        assertFalse(ConditionClassifier.isDaytime(SUNSET + 60, SUNRISE, SUNSET, TIMEZONE));
+        // Forecast steps days later reuse the same times of day
+        assertTrue(ConditionClassifier.isDaytime(SUNRISE + 3 * 86_400 + 60, SUNRISE, SUNSET, TIMEZONE));
+        assertFalse(ConditionClassifier.isDaytime(SUNSET + 3 * 86_400 + 60, SUNRISE, SUNSET, TIMEZONE));
+    }
+
+    @Test
+    void withoutSunTimesDayIsSixToSixLocal() {
+        long midnightUtc = 1729209600; // 2024-10-18T00:00Z
+        int tokyo = 9 * 3600;
+
+        assertTrue(ConditionClassifier.isDaytime(midnightUtc, 0, 0, tokyo)); // 09:00 in Tokyo
+        assertFalse(ConditionClassifier.isDaytime(midnightUtc, 0, 0, 0));
+        assertTrue(ConditionClassifier.isDaytime(midnightUtc + 6 * 3600, 0, 0, 0));
+        assertFalse(ConditionClassifier.isDaytime(midnightUtc + 18 * 3600, 0, 0, 0));
+    }
+
+    @Test
+    void backgroundFollowsTheSun() {
+        assertEquals("morning.jpg", ConditionClassifier.background(SUNRISE + 3600, SUNRISE, SUNSET, TIMEZONE));
+        assertEquals("day.jpg", ConditionClassifier.background(SUNRISE + 5 * 3600, SUNRISE, SUNSET, TIMEZONE));
+        assertEquals("evening.jpg", ConditionClassifier.background(SUNSET - 1800, SUNRISE, SUNSET, TIMEZONE));
+        assertEquals("evening.jpg", ConditionClassifier.background(SUNSET + 3600, SUNRISE, SUNSET, TIMEZONE));
+        assertEquals("night.jpg", ConditionClassifier.background(SUNSET + 3 * 3600, SUNRISE, SUNSET, TIMEZONE));
+        assertEquals("night.jpg", ConditionClassifier.background(SUNRISE - 60, SUNRISE, SUNSET, TIMEZONE));
+    }
+}
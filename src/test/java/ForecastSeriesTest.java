@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ForecastSeriesTest {
+
+    private static final long OCT_18_18H_UTC = 1729274400;
+    private static final long STEP = 3 * 3600;
+
+    @Test
+    void daysSplitAtLocalMidnightWestOfUtc() {
+        // UTC-5: the first four steps are still on the 18th locally, though two of them are the 19th in UTC
+        ForecastSeries forecast = forecast(-18000, 10, 12, 14, 16, 1, 3);
+
+        List<ForecastSeries.DailySummary> days = forecast.dailySummaries();
+
+        assertEquals(2, days.size());
+        assertDay(days.get(0), LocalDate.of(2024, 10, 18), 10, 16, 13, 4);
+        assertDay(days.get(1), LocalDate.of(2024, 10, 19), 1, 3, 2, 2);
+    }
+
+    @Test
+    void daysSplitAtLocalMidnightEastOfUtc() {
+        // UTC+9: 18:00Z is 03:00 on the 19th, and 15:00Z the next day is already the 20th
+        ForecastSeries forecast = forecast(9 * 3600, 5, 6, 7, 8, 9, 10, 11, 20);
+
+        List<ForecastSeries.DailySummary> days = forecast.dailySummaries();
+
+        assertEquals(2, days.size());
+        assertDay(days.get(0), LocalDate.of(2024, 10, 19), 5, 11, 8, 7);
+        assertDay(days.get(1), LocalDate.of(2024, 10, 20), 20, 20, 20, 1);
+    }
+
+    @Test
+    void fullForecastHasAboutSixDays() {
+        double[] temperatures = new double[40];
+        for (int i = 0; i < temperatures.length; i++) {
+            temperatures[i] = i;
+        }
+        ForecastSeries forecast = forecast(0, temperatures);
+
+        List<ForecastSeries.DailySummary> days = forecast.dailySummaries();
+
+        assertEquals(6, days.size()); // 18:00Z plus five days of 3-hour steps
+        assertEquals(2, days.get(0).count());
+        int steps = 0;
+        for (ForecastSeries.DailySummary day : days) {
+            steps += day.count();
+            assertTrue(day.min() <= day.average() && day.average() <= day.max());
+        }
+        assertEquals(40, steps);
+        assertEquals(0, forecast.minTemperature());
+        assertEquals(39, forecast.maxTemperature());
+    }
+
+    @Test
+    void emptyForecastHasNoDays() {
+        assertTrue(forecast(3600).dailySummaries().isEmpty());
+    }
+
+    @Test
+    void localTimeUsesTheLocationOffset() {
+        ForecastSeries forecast = forecast(-18000, 10);
+
+        assertEquals(13, forecast.localTime(0).getHour());
+        assertEquals(18, forecast.localTime(0).getDayOfMonth());
+    }
+
+    private static void assertDay(ForecastSeries.DailySummary day, LocalDate date, double min, double max,
+            double average, int count) {
+        assertEquals(date, day.date());
+        assertEquals(min, day.min(), 1e-6);
+        assertEquals(max, day.max(), 1e-6);
+        assertEquals(average, day.average(), 1e-6);
+        assertEquals(count, day.count());
+    }
+
+    // 3-hour steps from 2024-10-18T18:00Z with the given temperatures
+    private static ForecastSeries forecast(int timezoneOffsetSeconds, double... temperatures) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < temperatures.length; i++) {
+            list.append(i == 0 ? "" : ",")
+                    .append("{\"dt\":").append(OCT_18_18H_UTC + i * STEP)
+                    .append(",\"main\":{\"temp\":").append(temperatures[i]).append(",\"humidity\":50},")
+                    .append("\"weather\":[{\"id\":800,\"description\":\"clear sky\"}],\"wind\":{\"speed\":1.0}}");
+        }
+        String json = "{\"cnt\":" + temperatures.length + ",\"list\":[" + list + "],"
+                + "\"city\":{\"timezone\":" + timezoneOffsetSeconds + "}}";
+        return WeatherDecoder.decodeForecast(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+class HistoryBufferTest {
+
+    private final HistoryBuffer<Integer> buffer = new HistoryBuffer<>(5);
+    private int changes;
+
+    @Test
+    void addEvictsTheOldestWhenFull() {
+        for (int i = 1; i <= 7; i++) {
+            buffer.add(i);
+        }
+
+        assertEquals(List.of(3, 4, 5, 6, 7), buffer);
+        assertEquals(5, buffer.capacity());
+    }
+
+    @Test
+    void addToAFullBufferIsOneChange() {
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(i);
+        }
+        buffer.addListener((ListChangeListener.Change<? extends Integer> change) -> changes++);
+        buffer.add(6);
+
+        assertEquals(List.of(2, 3, 4, 5, 6), buffer);
+        assertEquals(1, changes);
+    }
+
+    @Test
+    void addAllIsOneChange() {
+        buffer.add(1);
+        buffer.addListener((ListChangeListener.Change<? extends Integer> change) -> changes++);
+        buffer.addAll(List.of(2, 3, 4, 5, 6, 7));
+
+        assertEquals(List.of(3, 4, 5, 6, 7), buffer);
+        assertEquals(1, changes);
+    }
+
+    @Test
+    void addAllFirstPutsOlderEntriesInFront() {
+        buffer.add(10);
+        buffer.add(11);
+        buffer.addListener((ListChangeListener.Change<? extends Integer> change) -> changes++);
+
+        assertEquals(3, buffer.addAllFirst(List.of(1, 2, 3, 4, 5))); // Only the newest three fit
+        assertEquals(List.of(3, 4, 5, 10, 11), buffer);
+        assertEquals(1, changes);
+        assertEquals(0, buffer.addAllFirst(List.of(0)));
+
+        buffer.add(12); // Still a ring: the oldest restored entry goes first
+        assertEquals(List.of(4, 5, 10, 11, 12), buffer);
+    }
+
+    @Test
+    void clearEmptiesTheRing() {
+        for (int i = 1; i <= 7; i++) {
+            buffer.add(i);
+        }
+        buffer.clear();
+        buffer.add(8);
+
+        assertEquals(List.of(8), buffer);
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new HistoryBuffer<Integer>(0));
+    }
+}
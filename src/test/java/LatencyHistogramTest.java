@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void emptyHistogramSummarizesToZero() {
+        LatencyHistogram.Summary summary = histogram.summary();
+
+        assertEquals(0, summary.count());
+        assertEquals(0, summary.p99Millis());
+        assertEquals(0, summary.maxMillis());
+    }
+
+    @Test
+    void valuesBelowSixteenMicrosAreExact() {
+        for (int micros = 0; micros < 16; micros++) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.recordNanos(micros * 1000L + 999); // Sub-microsecond remainders are dropped
+            assertEquals(micros / 1000.0, single.summary().p50Millis(), 1e-12, micros + " µs");
+        }
+    }
+
+    @Test
+    void everyValueIsReportedWithinAnEighth() {
+        for (long micros = 16; micros < 10_000_000_000L; micros = micros * 3 / 2 + 1) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.recordNanos(micros * 1000);
+            double reported = single.summary().p50Millis() * 1000;
+            assertTrue(reported <= micros, micros + " µs reported as " + reported);
+            assertTrue(reported >= micros * 0.875, micros + " µs reported as " + reported);
+        }
+    }
+
+    @Test
+    void percentilesFollowTheRecordedDistribution() {
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+        LatencyHistogram.Summary summary = histogram.summary();
+
+        assertEquals(1000, summary.count());
+        assertEquals(500.5, summary.meanMillis(), 1e-9);
+        assertEquals(500, summary.p50Millis(), 500 * 0.125);
+        assertEquals(900, summary.p90Millis(), 900 * 0.125);
+        assertEquals(990, summary.p99Millis(), 990 * 0.125);
+        assertEquals(1000, summary.maxMillis(), 1e-9);
+    }
+
+    @Test
+    void aFewSlowCallsOnlyMoveTheTail() {
+        for (int i = 0; i < 990; i++) {
+            histogram.recordNanos(2_000_000); // 2 ms
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordNanos(3_000_000_000L); // 3 s
+        }
+        LatencyHistogram.Summary summary = histogram.summary();
+
+        assertEquals(2, summary.p50Millis(), 2 * 0.125);
+        assertEquals(2, summary.p99Millis(), 2 * 0.125);
+        assertEquals(3000, summary.maxMillis(), 1e-9);
+    }
+
+    @Test
+    void valuesBeyondTheRangeLandInTheLastBucket() {
+        histogram.recordNanos(Long.MAX_VALUE);
+        histogram.recordNanos(-5); // A clock step backwards counts as zero
+
+        assertEquals(2, histogram.count());
+        assertEquals(Long.MAX_VALUE / 1000 / 1000.0, histogram.summary().maxMillis(), 1);
+        assertEquals(0, histogram.summary().p50Millis());
+    }
+
+    @Test
+    void resetStartsOver() {
+        histogram.recordNanos(5_000_000);
+        histogram.reset();
+        histogram.recordNanos(1_000);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0.001, histogram.summary().maxMillis(), 1e-12);
+    }
+}
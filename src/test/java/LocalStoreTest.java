@@ -0,0 +1,199 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file() {
+        return dir.resolve("store.log");
+    }
+
+    @Test
+    void restoresWhatWasWritten() throws Exception {
+        LocalStore store = new LocalStore(file(), 100);
+        store.appendHistory(history(1));
+        store.appendResponse("weather|london", 1234, new byte[] {1, 2, 3});
+        store.appendHistory(history(2));
+        store.appendLastViewed("london", "London");
+        store.close();
+
+        LocalStore.Snapshot snapshot = load(new LocalStore(file(), 100));
+        assertEquals(List.of(history(1), history(2)), snapshot.history());
+        assertEquals("london", snapshot.lastQuery());
+        assertEquals("London", snapshot.lastDisplayName());
+        assertEquals(1234, snapshot.responses().get("weather|london").fetchedAt());
+        assertArrayEquals(new byte[] {1, 2, 3}, snapshot.responses().get("weather|london").body());
+        assertFalse(snapshot.moreHistory());
+    }
+
+    @Test
+    void truncatedRecordIsDroppedOnOpen() throws Exception {
+        LocalStore store = new LocalStore(file(), 100);
+        store.appendHistory(history(1));
+        store.appendHistory(history(2));
+        store.close();
+        long size = Files.size(file());
+        try (RandomAccessFile raf = new RandomAccessFile(file().toFile(), "rw")) {
+            raf.setLength(size - 3); // A crash in the middle of writing the last record
+        }
+
+        LocalStore reopened = new LocalStore(file(), 100);
+        assertEquals(List.of(history(1)), load(reopened).history());
+        reopened.appendHistory(history(3)); // Lands where the torn record was
+        reopened.close();
+
+        assertEquals(List.of(history(1), history(3)), load(new LocalStore(file(), 100)).history());
+    }
+
+    @Test
+    void corruptLastRecordIsDroppedOnOpen() throws Exception {
+        LocalStore store = new LocalStore(file(), 100);
+        store.appendHistory(history(1));
+        store.appendHistory(history(2));
+        store.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file().toFile(), "rw")) {
+            raf.seek(Files.size(file()) - 8); // Inside the last record's payload
+            raf.write(0x5A);
+        }
+
+        assertEquals(List.of(history(1)), load(new LocalStore(file(), 100)).history());
+    }
+
+    @Test
+    void oversizedRecordIsRefusedWithoutLosingLaterOnes() throws Exception {
+        LocalStore store = new LocalStore(file(), 100);
+        store.appendHistory(history(1));
+        store.appendResponse("forecast|huge", 1, new byte[5 * 1024 * 1024]);
+        store.appendHistory(history(2));
+        store.close();
+
+        LocalStore.Snapshot snapshot = load(new LocalStore(file(), 100));
+        assertEquals(List.of(history(1), history(2)), snapshot.history());
+        assertNull(snapshot.responses().get("forecast|huge"));
+    }
+
+    @Test
+    void olderHistoryIsReadPageByPageUpToTheCapacity() throws Exception {
+        LocalStore store = new LocalStore(file(), 700);
+        for (int i = 0; i < 1000; i++) {
+            store.appendHistory(history(i));
+        }
+        store.appendLastViewed("london", "London");
+        store.close();
+
+        LocalStore reopened = new LocalStore(file(), 700);
+        LocalStore.Snapshot snapshot = load(reopened);
+        assertTrue(snapshot.moreHistory());
+        assertEquals(history(800), snapshot.history().get(0)); // Only the newest page at startup
+        List<LocalStore.HistoryRecord> all = readAllHistory(reopened, snapshot);
+        reopened.close();
+
+        assertEquals(700, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(history(300 + i), all.get(i));
+        }
+    }
+
+    @Test
+    void compactionKeepsLatestStateAndThePageCursor() throws Exception {
+        LocalStore store = new LocalStore(file(), 1000);
+        for (int i = 0; i < 600; i++) {
+            store.appendHistory(history(i));
+        }
+        store.appendLastViewed("london", "London");
+        store.close();
+
+        LocalStore reopened = new LocalStore(file(), 1000);
+        LocalStore.Snapshot snapshot = load(reopened);
+        byte[] body = new byte[1024 * 1024];
+        for (int i = 0; i < 9; i++) { // Rewrites of one key push the log past the compaction threshold
+            body[0] = (byte) i;
+            reopened.appendResponse("weather|london", i, body.clone());
+        }
+        List<LocalStore.HistoryRecord> all = readAllHistory(reopened, snapshot);
+        reopened.close();
+
+        assertTrue(Files.size(file()) < 4 * 1024 * 1024); // Nine bodies written, at most two left
+        assertEquals(600, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(history(i), all.get(i));
+        }
+        LocalStore.Snapshot compacted = load(new LocalStore(file(), 1000));
+        assertEquals("london", compacted.lastQuery());
+        assertEquals(8, compacted.responses().get("weather|london").body()[0]);
+    }
+
+    @Test
+    void appendsRacingCloseAreDroppedQuietly() throws Exception {
+        LocalStore store = new LocalStore(file(), 100);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread appender = new Thread(() -> {
+            try {
+                for (int i = 0; i < 500; i++) { // Keeps appending through and after close()
+                    store.appendHistory(history(i));
+                    started.countDown();
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        appender.start();
+        started.await();
+        store.close();
+        appender.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void secondStoreOnTheSameFileRunsWithoutPersistence() throws Exception {
+        LocalStore first = new LocalStore(file(), 100);
+        load(first);
+        LocalStore second = new LocalStore(file(), 100);
+
+        assertThrows(ExecutionException.class, () -> load(second));
+        second.appendHistory(history(2)); // Dropped instead of interleaving with the first store's records
+        second.close();
+        first.appendHistory(history(1));
+        first.close();
+
+        assertEquals(List.of(history(1)), load(new LocalStore(file(), 100)).history());
+    }
+
+    private static LocalStore.HistoryRecord history(int i) {
+        return new LocalStore.HistoryRecord("[2024-10-18 15:00:00] City " + i, i / 10.0, "cloud.png");
+    }
+
+    private static LocalStore.Snapshot load(LocalStore store) throws Exception {
+        return store.load(query -> List.of("weather|" + query)).get();
+    }
+
+    // The snapshot's history followed by every older page in front of it, oldest first
+    private static List<LocalStore.HistoryRecord> readAllHistory(LocalStore store, LocalStore.Snapshot snapshot)
+            throws Exception {
+        List<LocalStore.HistoryRecord> all = new ArrayList<>(snapshot.history());
+        List<LocalStore.HistoryRecord> page;
+        while (!(page = store.loadOlderHistory().get()).isEmpty()) {
+            all.addAll(0, page);
+        }
+        return all;
+    }
+}
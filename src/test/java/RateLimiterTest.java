@@ -0,0 +1,67 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    @Test
+    void burstIsAvailableAtOnce() {
+        RateLimiter limiter = new RateLimiter(60, 10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(), "call " + i);
+        }
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void acquireWaitsForTheNextToken() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(6001, 1); // One token every 10 ms after the burst
+        long maxWait = TimeUnit.SECONDS.toNanos(1);
+        assertTrue(limiter.acquire(maxWait));
+        long start = System.nanoTime();
+        assertTrue(limiter.acquire(maxWait));
+        assertTrue(limiter.acquire(maxWait));
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(15));
+    }
+
+    @Test
+    void acquireGivesUpWhenTheWaitIsTooLong() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(2, 1); // One token every minute after the burst
+        assertTrue(limiter.acquire(0));
+        long start = System.nanoTime();
+
+        assertFalse(limiter.acquire(TimeUnit.SECONDS.toNanos(5)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1)); // Failed without sleeping
+        assertFalse(limiter.tryAcquire()); // Nothing was taken, but no token has come back yet either
+    }
+
+    @Test
+    void refusedAcquireReservesNothing() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(6001, 1);
+        assertTrue(limiter.acquire(0));
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(limiter.acquire(0)); // Each refusal would otherwise push the next token further out
+        }
+        assertTrue(limiter.acquire(TimeUnit.MILLISECONDS.toNanos(20)));
+    }
+
+    @Test
+    void oneCallPerMinuteIsAllowed() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void rejectsBurstsOutsideTheQuota() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(60, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(60, 61));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1));
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    // Background refreshes are collected instead of run, so each test decides when they happen
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        ResponseCache<String> cache = new ResponseCache<>(2, 0);
+        cache.put("a", "A", HOUR);
+        cache.put("b", "B", HOUR);
+        cache.get("a", HOUR, () -> "reloaded", refreshes::add); // a is now more recent than b
+        cache.put("c", "C", HOUR);
+
+        assertEquals("A", cache.getLastKnown("a"));
+        assertNull(cache.getLastKnown("b"));
+        assertEquals("C", cache.getLastKnown("c"));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(2, cache.getStats().size());
+    }
+
+    @Test
+    void freshEntryIsServedWithoutLoading() {
+        ResponseCache<String> cache = new ResponseCache<>(4, 0);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", HOUR, () -> "A" + loads.incrementAndGet(), refreshes::add);
+
+        assertEquals("A1", cache.get("a", HOUR, () -> "A" + loads.incrementAndGet(), refreshes::add));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    void expiredEntryPastTheStaleWindowIsReloaded() {
+        ResponseCache<String> cache = new ResponseCache<>(4, 1000);
+        cache.putExpiringAt("a", "old", System.currentTimeMillis() - 5000);
+
+        assertEquals("new", cache.get("a", HOUR, () -> "new", refreshes::add));
+        assertEquals(0, refreshes.size());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshRuns() {
+        ResponseCache<String> cache = new ResponseCache<>(4, HOUR);
+        cache.putExpiringAt("a", "old", System.currentTimeMillis() - 1000);
+
+        assertEquals("old", cache.get("a", HOUR, () -> "new", refreshes::add));
+        assertEquals("old", cache.get("a", HOUR, () -> "new", refreshes::add));
+        assertEquals(1, refreshes.size()); // The second stale hit does not start another refresh
+        assertEquals(2, cache.getStats().staleHits());
+
+        refreshes.get(0).run();
+        assertEquals("new", cache.get("a", HOUR, () -> "newer", refreshes::add));
+    }
+
+    @Test
+    void failedRefreshKeepsTheStaleValue() {
+        ResponseCache<String> cache = new ResponseCache<>(4, HOUR);
+        cache.putExpiringAt("a", "old", System.currentTimeMillis() - 1000);
+        cache.get("a", HOUR, () -> {
+            throw new IllegalStateException("upstream down");
+        }, refreshes::add);
+        refreshes.get(0).run();
+
+        assertEquals("old", cache.get("a", HOUR, () -> "new", refreshes::add));
+        assertEquals(2, refreshes.size()); // The failed refresh released the slot for another try
+    }
+
+    @Test
+    void failedLoadStoresNothing() {
+        ResponseCache<String> cache = new ResponseCache<>(4, 0);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", HOUR, () -> {
+            throw new IllegalStateException("upstream down");
+        }, refreshes::add));
+        assertNull(cache.getLastKnown("a"));
+    }
+}
@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsWithAFullBucket() {
+        RetryBudget budget = new RetryBudget(0.1, 3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(budget.tryWithdraw(), "extra call " + i);
+        }
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void ordinaryRequestsEarnExtraCallsAtTheRatio() {
+        RetryBudget budget = new RetryBudget(0.25, 1);
+        budget.tryWithdraw();
+        for (int i = 0; i < 3; i++) {
+            budget.onRequest();
+        }
+        assertFalse(budget.tryWithdraw());
+
+        budget.onRequest();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void quietSpellsDoNotSaveUpMoreThanTheMaximum() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void rejectsRatiosOutsideZeroToOne() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, 0));
+    }
+}
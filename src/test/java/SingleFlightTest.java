@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final AtomicInteger started = new AtomicInteger();
+
+    @Test
+    void concurrentCallsForOneKeyShareOneRequest() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("a", () -> start(upstream));
+        CompletableFuture<String> second = flights.execute("a", () -> start(new CompletableFuture<>()));
+        upstream.complete("A");
+
+        assertEquals("A", first.join());
+        assertEquals("A", second.join());
+        assertEquals(1, started.get());
+        assertEquals(1, flights.getStats().coalesced());
+        assertEquals(0, flights.getStats().inFlight());
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        flights.execute("a", () -> start(new CompletableFuture<>()));
+        flights.execute("b", () -> start(new CompletableFuture<>()));
+
+        assertEquals(2, started.get());
+        assertEquals(2, flights.getStats().inFlight());
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheOthersWaiting() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("a", () -> start(upstream));
+        CompletableFuture<String> second = flights.execute("a", () -> start(new CompletableFuture<>()));
+        first.cancel(true);
+        upstream.complete("A");
+
+        assertTrue(first.isCancelled());
+        assertEquals("A", second.join());
+        assertEquals(1, flights.getStats().cancelled());
+    }
+
+    @Test
+    void finishedRequestIsNotReused() {
+        flights.execute("a", () -> start(CompletableFuture.completedFuture("A"))).join();
+
+        assertEquals("B", flights.execute("a", () -> start(CompletableFuture.completedFuture("B"))).join());
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    void failuresReachEveryCallerAndClearTheKey() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("a", () -> start(upstream));
+        CompletableFuture<String> second = flights.execute("a", () -> start(new CompletableFuture<>()));
+        upstream.completeExceptionally(new IllegalStateException("down"));
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+        assertEquals(0, flights.getStats().inFlight());
+    }
+
+    @Test
+    void callThatThrowsIsReportedThroughTheFuture() {
+        CompletableFuture<String> result = flights.execute("a", () -> {
+            throw new IllegalStateException("no client");
+        });
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(0, flights.getStats().inFlight());
+    }
+
+    private CompletableFuture<String> start(CompletableFuture<String> upstream) {
+        started.incrementAndGet();
+        return upstream;
+    }
+}
@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WeatherDecoderTest {
+
+    @Test
+    void decodesCurrentWeatherFixture() throws IOException {
+        CurrentConditions current = WeatherDecoder.decodeCurrent(fixture("weather.json"));
+
+        assertEquals(2643743, current.cityId());
+        assertEquals("London", current.name());
+        assertEquals(14.62, current.temperature(), 1e-9);
+        assertEquals(78, current.humidity());
+        assertEquals(4.12, current.windSpeed(), 1e-9);
+        assertEquals(803, current.conditionId());
+        assertEquals("broken clouds", current.description());
+        assertEquals(1729233134, current.sunrise());
+        assertEquals(1729270841, current.sunset());
+        assertEquals(3600, current.timezoneOffsetSeconds());
+    }
+
+    @Test
+    void missingCurrentFieldsFallBackToDefaults() {
+        CurrentConditions current = WeatherDecoder.decodeCurrent(json("{\"name\":\"Nowhere\",\"weather\":[]}"));
+
+        assertEquals("Nowhere", current.name());
+        assertEquals(0, current.temperature());
+        assertEquals(0, current.humidity());
+        assertEquals(0, current.conditionId());
+        assertEquals("", current.description());
+        assertEquals(0, current.sunrise());
+    }
+
+    @Test
+    void onlyTheFirstConditionIsRead() {
+        CurrentConditions current = WeatherDecoder.decodeCurrent(json(
+                "{\"weather\":[{\"id\":500,\"description\":\"light rain\"},{\"id\":701,\"description\":\"mist\"}]}"));
+
+        assertEquals(500, current.conditionId());
+        assertEquals("light rain", current.description());
+    }
+
+    @Test
+    void decodesForecastFixture() throws IOException {
+        ForecastSeries forecast = WeatherDecoder.decodeForecast(fixture("forecast.json"));
+
+        assertEquals(40, forecast.size());
+        assertEquals(1729274400, forecast.epochSecond(0));
+        assertEquals(12.65, forecast.temperature(0), 1e-4); // Stored as float
+        assertEquals(80, forecast.humidity(0));
+        assertEquals(801, forecast.conditionId(0));
+        assertEquals("few clouds", forecast.description(0));
+        assertEquals(3600, forecast.timezoneOffsetSeconds());
+    }
+
+    @Test
+    void forecastShorterThanItsCountIsTrimmed() {
+        ForecastSeries forecast = WeatherDecoder.decodeForecast(json("{\"cnt\":40,\"list\":["
+                + step(1000, 10.5) + "," + step(2000, 11.5) + "]}"));
+
+        assertEquals(2, forecast.size());
+        assertEquals(2000, forecast.epochSecond(1));
+        assertEquals(11.5, forecast.temperature(1), 1e-6);
+    }
+
+    @Test
+    void forecastLongerThanItsCountGrows() {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 45; i++) {
+            list.append(i == 0 ? "" : ",").append(step(i * 10_800L, i));
+        }
+        ForecastSeries forecast = WeatherDecoder.decodeForecast(json("{\"cnt\":1,\"list\":[" + list + "]}"));
+
+        assertEquals(45, forecast.size());
+        assertEquals(44, forecast.temperature(44), 1e-6);
+    }
+
+    @Test
+    void forecastCountIsOnlyASizeHint() {
+        String steps = step(1000, 10.5) + "," + step(2000, 11.5);
+
+        assertEquals(2, WeatherDecoder.decodeForecast(json("{\"cnt\":2000000000,\"list\":[" + steps + "]}")).size());
+        assertEquals(2, WeatherDecoder.decodeForecast(json("{\"cnt\":-5,\"list\":[" + steps + "]}")).size());
+    }
+
+    @Test
+    void forecastWithoutListIsEmpty() {
+        ForecastSeries forecast = WeatherDecoder.decodeForecast(
+                json("{\"cod\":\"200\",\"city\":{\"timezone\":-18000}}"));
+
+        assertEquals(0, forecast.size());
+        assertEquals(-18000, forecast.timezoneOffsetSeconds());
+    }
+
+    @Test
+    void decodesGroupInOrder() {
+        List<CurrentConditions> group = WeatherDecoder.decodeGroup(json(
+                "{\"cnt\":2,\"list\":[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]}"));
+
+        assertEquals(2, group.size());
+        assertEquals("A", group.get(0).name());
+        assertEquals(2, group.get(1).cityId());
+    }
+
+    @Test
+    void malformedPayloadsAreReportedAsApiErrors() {
+        assertThrows(WeatherApiException.class, () -> WeatherDecoder.decodeCurrent(json("{\"main\":{\"temp\":")));
+        assertThrows(WeatherApiException.class, () -> WeatherDecoder.decodeCurrent(json("[]")));
+        assertThrows(WeatherApiException.class, () -> WeatherDecoder.decodeForecast(json("{\"list\":{}}")));
+        assertThrows(WeatherApiException.class,
+                () -> WeatherDecoder.decodeCurrent(json("{\"main\":{\"temp\":\"warm\"}}")));
+    }
+
+    private static String step(long epochSecond, double temperature) {
+        return "{\"dt\":" + epochSecond + ",\"main\":{\"temp\":" + temperature + ",\"humidity\":50},"
+                + "\"weather\":[{\"id\":800,\"description\":\"clear sky\"}],\"wind\":{\"speed\":1.0}}";
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = WeatherDecoderTest.class.getResourceAsStream("/fixtures/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}